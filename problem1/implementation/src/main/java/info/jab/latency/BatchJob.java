@@ -0,0 +1,28 @@
+package info.jab.latency;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An independent solve of a {@link BatchSolver} run: the sum of the God names starting with any of the letters,
+ * across the APIs of the job.
+ *
+ * @param id The identifier of the job, echoed in its result.
+ * @param apiUrls The URLs of the God APIs to fetch, not empty.
+ * @param letters The first letters of the God names to sum, in any case, not empty.
+ */
+public record BatchJob(String id, List<String> apiUrls, Set<Character> letters) {
+
+    public BatchJob {
+        Objects.requireNonNull(id, "id");
+        apiUrls = List.copyOf(apiUrls);
+        letters = Set.copyOf(letters);
+        if (apiUrls.isEmpty()) {
+            throw new IllegalArgumentException("Job " + id + " has no API URL");
+        }
+        if (letters.isEmpty()) {
+            throw new IllegalArgumentException("Job " + id + " has no letter");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package info.jab.latency;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The JSON Lines formats of {@link BatchSolveMain}, one JSON object per line.
+ *
+ * <p>A job: {@code {"id": "nightly-1", "apiUrls": ["https://...", "https://..."], "letters": "n"}}, where the letters
+ * are optional and default to {@code n}. Blank lines and lines starting with {@code #} are skipped. A malformed line
+ * fails on its own: its result has the id of the job if the line has one, or {@code line <number>}.
+ *
+ * <p>A result: {@code {"id": "nightly-1", "sum": "78179288397447443426", "includedApiUrls": [...],
+ * "missingApiUrls": [...], "staleApiUrls": [...], "elapsedMillis": 120}}, the sum being a string so that
+ * consumers do not round it, or {@code {"id": "nightly-1", "failure": "...", "elapsedMillis": 120}}.
+ */
+final class BatchJsonLines {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BatchJsonLines() {}
+
+    /**
+     * Reads the jobs lazily, one line at a time.
+     *
+     * @param reader The lines of the jobs; closing it is up to the caller.
+     * @return The jobs; {@code next()} throws a {@link MalformedJobException} on a malformed line, after which the
+     *         iteration goes on with the next line. Iterating throws an UncheckedIOException if the lines cannot be read.
+     */
+    static Iterator<BatchJob> readJobs(BufferedReader reader) {
+        return new Iterator<>() {
+
+            private int lineNumber;
+            private @Nullable String pending;
+
+            @Override
+            public boolean hasNext() {
+                if (pending != null) {
+                    return true;
+                }
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lineNumber++;
+                        String trimmed = line.strip();
+                        if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                            pending = trimmed;
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            // Parsed here rather than in hasNext, so that a malformed line is consumed by the call reporting it
+            @Override
+            public BatchJob next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String line = Objects.requireNonNull(pending);
+                pending = null;
+                return parseJob(line, lineNumber);
+            }
+        };
+    }
+
+    static BatchJob parseJob(String line, int lineNumber) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new MalformedJobException(lineNumber, null, "not JSON: " + e.getOriginalMessage(), e);
+        }
+        JsonNode id = node.path("id");
+        JsonNode apiUrls = node.path("apiUrls");
+        if (!id.isTextual() || !apiUrls.isArray()) {
+            throw new MalformedJobException(lineNumber, id.isTextual() ? id.asText() : null,
+                    "needs a string id and an array of apiUrls", null);
+        }
+        List<String> urls = new ArrayList<>();
+        for (JsonNode apiUrl : apiUrls) {
+            urls.add(apiUrl.asText());
+        }
+        Set<Character> letters = new LinkedHashSet<>();
+        for (char letter : node.path("letters").asText("n").toCharArray()) {
+            letters.add(letter);
+        }
+        try {
+            return new BatchJob(id.asText(), urls, letters);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJobException(lineNumber, id.asText(), String.valueOf(e.getMessage()), e);
+        }
+    }
+
+    static String formatResult(BatchResult result) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", result.jobId());
+        SolveResult solved = result.result();
+        if (solved != null) {
+            node.put("sum", solved.sum().toString());
+            solved.includedApiUrls().forEach(node.putArray("includedApiUrls")::add);
+            solved.missingApiUrls().forEach(node.putArray("missingApiUrls")::add);
+            solved.staleApiUrls().forEach(node.putArray("staleApiUrls")::add);
+        } else {
+            node.put("failure", result.failure());
+        }
+        node.put("elapsedMillis", result.elapsed().toMillis());
+        return node.toString();
+    }
+}
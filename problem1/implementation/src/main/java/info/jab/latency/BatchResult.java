@@ -0,0 +1,33 @@
+package info.jab.latency;
+
+import java.time.Duration;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The outcome of a {@link BatchJob}: its solve result, or why it failed.
+ *
+ * @param jobId The identifier of the job.
+ * @param result The sum with the included, missing and stale API URLs, or null if the job failed.
+ * @param failure Why the job failed, or null if it was solved.
+ * @param elapsed The time from the start of the job to its outcome, excluding the wait for a concurrency permit.
+ */
+public record BatchResult(String jobId, @Nullable SolveResult result, @Nullable String failure, Duration elapsed) {
+
+    static BatchResult solved(String jobId, SolveResult result, Duration elapsed) {
+        return new BatchResult(jobId, result, null, elapsed);
+    }
+
+    static BatchResult failed(String jobId, String failure, Duration elapsed) {
+        return new BatchResult(jobId, null, failure, elapsed);
+    }
+
+    /**
+     * Tells whether the job was solved, possibly partially.
+     *
+     * @return true if the result is available.
+     */
+    public boolean isSolved() {
+        return result != null;
+    }
+}
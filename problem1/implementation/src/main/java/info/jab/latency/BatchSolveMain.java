@@ -0,0 +1,100 @@
+package info.jab.latency;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import info.jab.latency.api.GodApiClient;
+import info.jab.latency.api.GodApiClientOptions;
+import info.jab.latency.api.HttpClientFactory;
+import info.jab.latency.service.NameConverter;
+
+/**
+ * Runs a batch of solves from the command line, see the batch profile of the pom. The arguments are given as
+ * key=value:
+ *
+ * <ul>
+ *   <li>jobs: the JSON Lines file of the jobs, required</li>
+ *   <li>out: the JSON Lines file of the results, written as the jobs finish (the standard output)</li>
+ *   <li>timeout: the API timeout in milliseconds (2000)</li>
+ *   <li>concurrency: the maximum number of jobs running at once (64)</li>
+ *   <li>requests, requestsPerHost: the maximum number of API requests in flight, overall and per host (256, unlimited)</li>
+ *   <li>budget: the latency budget of each job in milliseconds, after which the missing APIs are left out (none)</li>
+ * </ul>
+ *
+ * <p>Every job shares the process-wide HTTP client. The job and result formats are described in {@link BatchJsonLines}.
+ */
+public final class BatchSolveMain {
+
+    private BatchSolveMain() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> params = parse(args);
+        String jobsFile = params.get("jobs");
+        if (jobsFile == null) {
+            throw new IllegalArgumentException("Missing jobs=<file>");
+        }
+        Duration timeout = Duration.ofMillis(Long.parseLong(params.getOrDefault("timeout", "2000")));
+        int concurrency = Integer.parseInt(params.getOrDefault("concurrency", "64"));
+        ConcurrencyLimits limits = ConcurrencyLimits.of(Integer.parseInt(params.getOrDefault("requests", "256")));
+        String requestsPerHost = params.get("requestsPerHost");
+        if (requestsPerHost != null) {
+            limits = limits.withMaxConcurrentRequestsPerHost(Integer.parseInt(requestsPerHost));
+        }
+        SolverOptions options = SolverOptions.defaults().withConcurrencyLimits(limits);
+        String budget = params.get("budget");
+        if (budget != null) {
+            options = options.withLatencyBudget(Duration.ofMillis(Long.parseLong(budget)));
+        }
+
+        GodApiClient godApiClient = new GodApiClient(timeout, GodApiClientOptions.defaults().withHttpClients(HttpClientFactory.shared()));
+        BatchSolver batchSolver = new BatchSolver(godApiClient, new NameConverter(), options, concurrency);
+        Path jobs = Path.of(jobsFile);
+        String out = params.get("out");
+        if (out == null) {
+            // Not closed, the standard output outlives the batch
+            run(batchSolver, jobs, new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), "the standard output");
+        } else {
+            try (PrintWriter results = new PrintWriter(Files.newBufferedWriter(Path.of(out), StandardCharsets.UTF_8))) {
+                run(batchSolver, jobs, results, out);
+            }
+        }
+    }
+
+    private static void run(BatchSolver batchSolver, Path jobsFile, PrintWriter results, String resultsName)
+            throws IOException, InterruptedException {
+        try (BufferedReader jobs = Files.newBufferedReader(jobsFile, StandardCharsets.UTF_8)) {
+            long start = System.nanoTime();
+            BatchSolver.Stats stats = batchSolver.run(BatchJsonLines.readJobs(jobs), result -> {
+                results.println(BatchJsonLines.formatResult(result));
+                results.flush(); // Streamed, so that downstream consumers see each result as it is solved
+                if (results.checkError()) {
+                    throw new UncheckedIOException(new IOException("Cannot write the results to " + resultsName));
+                }
+            });
+            System.err.printf("%d jobs solved, %d failed, %d API calls, %d memoized fetches in %d ms%n",
+                    stats.solvedJobs(), stats.failedJobs(), stats.apiCalls(), stats.memoizedFetches(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            params.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return params;
+    }
+}
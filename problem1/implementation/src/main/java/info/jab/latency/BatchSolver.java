@@ -0,0 +1,175 @@
+package info.jab.latency;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.jab.latency.api.GodsFetcher;
+import info.jab.latency.api.MemoizingGodsFetcher;
+import info.jab.latency.service.DecimalValueConverter;
+
+/**
+ * Runs many independent {@link BatchJob}s in one process and hands out each result as soon as its job finishes,
+ * so that thousands of solves share the JVM warm-up, the pooled connections of the fetcher and the API payloads.
+ *
+ * <p>Each job is solved by its own {@link LatencyProblemSolver}, through its {@link LetterIndex}: the payload of
+ * an API URL is fetched once per run, unfiltered, and reused by every job listing it, whatever its letters.
+ * The concurrency budget is global: at most {@code maxConcurrentJobs} jobs run at once, and the concurrency limits
+ * of the options cap the requests of the whole run rather than of each job. The other options apply to every job.
+ */
+public final class BatchSolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchSolver.class);
+
+    private final GodsFetcher godsFetcher;
+    private final DecimalValueConverter nameConverter;
+    private final SolverOptions options;
+    private final int maxConcurrentJobs;
+
+    /**
+     * The counters of a run.
+     *
+     * @param solvedJobs The jobs solved, possibly partially.
+     * @param failedJobs The jobs that failed.
+     * @param apiCalls The calls to the APIs.
+     * @param memoizedFetches The fetches served by a payload fetched earlier in the run, or in flight.
+     */
+    public record Stats(long solvedJobs, long failedJobs, long apiCalls, long memoizedFetches) {}
+
+    /**
+     * Constructs a batch solver.
+     *
+     * @param godsFetcher The fetcher for the God APIs, shared by every job.
+     * @param nameConverter The converter from God names to decimal values, shared by every job.
+     * @param options The tuning options; only the {@link FanOutMode#STRUCTURED} fan-out is supported.
+     * @param maxConcurrentJobs The maximum number of jobs running at once.
+     */
+    public BatchSolver(GodsFetcher godsFetcher, DecimalValueConverter nameConverter, SolverOptions options, int maxConcurrentJobs) {
+        if (options.fanOutMode() != FanOutMode.STRUCTURED) {
+            throw new IllegalArgumentException("Batches only support the STRUCTURED fan-out, not " + options.fanOutMode());
+        }
+        if (maxConcurrentJobs <= 0) {
+            throw new IllegalArgumentException("maxConcurrentJobs must be positive: " + maxConcurrentJobs);
+        }
+        this.godsFetcher = godsFetcher;
+        this.nameConverter = nameConverter;
+        this.options = options;
+        this.maxConcurrentJobs = maxConcurrentJobs;
+    }
+
+    /**
+     * Runs the jobs and waits for all of them. The next job is only read once a running job leaves room for it,
+     * so the jobs may be streamed from a file. The results are handed to the consumer one at a time,
+     * in completion order; a failed job is a result too, it does not stop the run. So is a job the iterator cannot read,
+     * a {@link MalformedJobException}, whose result has the job id if known and the line number in its failure.
+     *
+     * @param jobs The jobs to run.
+     * @param results The consumer of the results; need not be thread-safe.
+     * @return The counters of the run.
+     * @throws InterruptedException if interrupted while waiting for room to start a job; the running jobs still complete.
+     */
+    public Stats run(Iterator<BatchJob> jobs, Consumer<BatchResult> results) throws InterruptedException {
+        // Scoped to the run: a payload fetched for a nightly batch is not reused by the next one
+        RequestGate requestGate = new RequestGate(options.concurrencyLimits());
+        MemoizingGodsFetcher fetcher = new MemoizingGodsFetcher(apiUrl -> fetchGated(requestGate, apiUrl));
+        SolverOptions jobOptions = options.withConcurrencyLimits(ConcurrencyLimits.unlimited());
+        Semaphore room = new Semaphore(maxConcurrentJobs);
+        ReentrantLock resultsLock = new ReentrantLock();
+        AtomicReference<RuntimeException> consumerFailure = new AtomicReference<>();
+        LongAdder solvedJobs = new LongAdder();
+        LongAdder failedJobs = new LongAdder();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (jobs.hasNext() && consumerFailure.get() == null) {
+                room.acquire();
+                BatchJob job;
+                try {
+                    job = jobs.next();
+                } catch (MalformedJobException e) {
+                    // The bad line fails alone, the jobs already running and the next ones go on
+                    room.release();
+                    failedJobs.increment();
+                    String jobId = e.jobId();
+                    String failure = String.valueOf(e.getMessage());
+                    logger.warn("Batch job at line {} is malformed: {}", e.lineNumber(), failure);
+                    deliver(BatchResult.failed(jobId != null ? jobId : "line " + e.lineNumber(), failure, Duration.ZERO),
+                            results, resultsLock, consumerFailure);
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        BatchResult result = solve(job, fetcher, jobOptions);
+                        (result.isSolved() ? solvedJobs : failedJobs).increment();
+                        deliver(result, results, resultsLock, consumerFailure);
+                    } finally {
+                        room.release();
+                    }
+                });
+            }
+        }
+        RuntimeException failure = consumerFailure.get();
+        if (failure != null) {
+            throw failure; // The results cannot be delivered anymore, e.g. the output is full
+        }
+        return new Stats(solvedJobs.sum(), failedJobs.sum(), fetcher.calls(), fetcher.hits());
+    }
+
+    // Hands the results to the consumer one at a time; once the consumer failed, the run stops reading jobs
+    private static void deliver(BatchResult result, Consumer<BatchResult> results, ReentrantLock resultsLock,
+            AtomicReference<RuntimeException> consumerFailure) {
+        resultsLock.lock();
+        try {
+            results.accept(result);
+        } catch (RuntimeException e) {
+            consumerFailure.compareAndSet(null, e);
+        } finally {
+            resultsLock.unlock();
+        }
+    }
+
+    private BatchResult solve(BatchJob job, GodsFetcher fetcher, SolverOptions jobOptions) {
+        long start = System.nanoTime();
+        try {
+            LetterIndex index = new LatencyProblemSolver(job.apiUrls(), fetcher, nameConverter, jobOptions).letterIndex();
+            SolveResult result = new SolveResult(index.sum(job.letters()), index.includedApiUrls(), index.missingApiUrls(),
+                    index.staleApiUrls());
+            return BatchResult.solved(job.id(), result, Duration.ofNanos(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            Throwable cause = failureOf(e);
+            logger.warn("Batch job {} failed: {}", job.id(), cause.toString());
+            return BatchResult.failed(job.id(), cause.toString(), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private List<String> fetchGated(RequestGate requestGate, String apiUrl) throws IOException, InterruptedException {
+        requestGate.acquire(apiUrl, null);
+        try {
+            return godsFetcher.fetchGods(apiUrl);
+        } finally {
+            requestGate.release(apiUrl);
+        }
+    }
+
+    // The solver wraps the failure of a fetch in an ExecutionException, itself in a RuntimeException: unwrap both
+    private static Throwable failureOf(Throwable throwable) {
+        Throwable failure = throwable;
+        Throwable cause = failure.getCause();
+        while ((failure instanceof ExecutionException || failure.getClass() == RuntimeException.class) && cause != null) {
+            failure = cause;
+            cause = failure.getCause();
+        }
+        return failure;
+    }
+}
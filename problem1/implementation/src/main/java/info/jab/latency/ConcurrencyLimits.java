@@ -0,0 +1,50 @@
+package info.jab.latency;
+
+/**
+ * Caps on the number of requests that {@link LatencyProblemSolver} keeps in flight, so that very large API URL lists
+ * do not open more sockets than the process can afford. The caps are shared by the concurrent solves of a solver.
+ *
+ * @param maxConcurrentRequests The maximum number of requests in flight, across all hosts.
+ * @param maxConcurrentRequestsPerHost The maximum number of requests in flight to the same host and port.
+ */
+public record ConcurrencyLimits(int maxConcurrentRequests, int maxConcurrentRequestsPerHost) {
+
+    /** Stands for no limit. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    public ConcurrencyLimits {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be positive: " + maxConcurrentRequests);
+        }
+        if (maxConcurrentRequestsPerHost <= 0) {
+            throw new IllegalArgumentException("maxConcurrentRequestsPerHost must be positive: " + maxConcurrentRequestsPerHost);
+        }
+    }
+
+    /**
+     * Returns limits allowing one request in flight per API URL, the original behaviour.
+     *
+     * @return The unlimited limits.
+     */
+    public static ConcurrencyLimits unlimited() {
+        return new ConcurrencyLimits(UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * Returns limits capping the requests in flight across all hosts, without per-host limit.
+     *
+     * @param maxConcurrentRequests The maximum number of requests in flight.
+     * @return The limits.
+     */
+    public static ConcurrencyLimits of(int maxConcurrentRequests) {
+        return new ConcurrencyLimits(maxConcurrentRequests, UNLIMITED);
+    }
+
+    public ConcurrencyLimits withMaxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost) {
+        return new ConcurrencyLimits(maxConcurrentRequests, maxConcurrentRequestsPerHost);
+    }
+
+    boolean isUnlimited() {
+        return maxConcurrentRequests == UNLIMITED && maxConcurrentRequestsPerHost == UNLIMITED;
+    }
+}
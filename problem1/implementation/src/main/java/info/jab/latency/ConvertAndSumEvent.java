@@ -0,0 +1,38 @@
+package info.jab.latency;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The conversion of the filtered God names to their decimal values and their sum, done in a single pass.
+ * Disabled unless a recording enables it.
+ */
+@Name(ConvertAndSumEvent.NAME)
+@Label("Convert And Sum")
+@Category({"Latency Problem", "Solver"})
+@Description("The conversion of the filtered God names and their sum")
+@Enabled(false)
+@StackTrace(false)
+final class ConvertAndSumEvent extends Event {
+
+    static final String NAME = "info.jab.latency.ConvertAndSum";
+
+    @Label("God Names")
+    long godNames;
+
+    @Label("Converted Names")
+    @Description("The names actually converted, fewer than the God names with name deduplication")
+    long convertedNames;
+
+    @Label("Parallel")
+    @Description("Whether the names were converted on the common ForkJoinPool")
+    boolean parallel;
+
+    @Label("Sum Bit Length")
+    int sumBitLength;
+}
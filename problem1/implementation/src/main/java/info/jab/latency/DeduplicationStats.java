@@ -0,0 +1,19 @@
+package info.jab.latency;
+
+/**
+ * The counters of the name deduplication of {@link LatencyProblemSolver}, across its solves.
+ *
+ * @param names The God names summed.
+ * @param distinctNames The God names converted, one per distinct name in each sum.
+ */
+public record DeduplicationStats(long names, long distinctNames) {
+
+    /**
+     * Returns the share of names whose conversion was saved by the deduplication.
+     *
+     * @return The hit ratio, between 0 and 1; 0 if no name was summed.
+     */
+    public double hitRatio() {
+        return names == 0 ? 0.0 : (double) (names - distinctNames) / names;
+    }
+}
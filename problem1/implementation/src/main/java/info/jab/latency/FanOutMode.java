@@ -0,0 +1,16 @@
+package info.jab.latency;
+
+/**
+ * How {@link LatencyProblemSolver} fans out the calls to the God APIs.
+ */
+public enum FanOutMode {
+
+    /** One virtual thread per API URL, forked and joined in a {@link java.util.concurrent.StructuredTaskScope}. */
+    STRUCTURED,
+
+    /**
+     * Non-blocking requests composed as {@link java.util.concurrent.CompletableFuture}s, so the fan-out is bound
+     * by sockets rather than threads. Requires an {@link info.jab.latency.api.AsyncGodsFetcher}.
+     */
+    ASYNC
+}
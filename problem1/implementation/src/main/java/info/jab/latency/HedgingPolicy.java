@@ -0,0 +1,37 @@
+package info.jab.latency;
+
+/**
+ * When {@link LatencyProblemSolver} issues a duplicate (hedged) request to a slow API.
+ * If an API has not answered within the given percentile of its recent latencies, the same request is sent again
+ * and the first response wins; the other one is cancelled. At p95 this costs about 5% more requests.
+ *
+ * @param percentile The percentile of the recent latencies of the API after which a hedged request is issued,
+ *        between 0 (exclusive) and 1 (exclusive), e.g. 0.95 for p95.
+ * @param minSamples The number of latencies recorded for an API before it is hedged; until then requests are not hedged.
+ */
+public record HedgingPolicy(double percentile, int minSamples) {
+
+    private static final int DEFAULT_MIN_SAMPLES = 20;
+
+    /** How many recent latencies are kept per API to compute the percentile. */
+    static final int LATENCY_WINDOW_SIZE = 256;
+
+    public HedgingPolicy {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1): " + percentile);
+        }
+        if (minSamples <= 0) {
+            throw new IllegalArgumentException("minSamples must be positive: " + minSamples);
+        }
+    }
+
+    /**
+     * Returns a policy hedging after the given percentile, once 20 latencies have been recorded for an API.
+     *
+     * @param percentile The percentile, e.g. 0.95 for p95.
+     * @return The hedging policy.
+     */
+    public static HedgingPolicy atPercentile(double percentile) {
+        return new HedgingPolicy(percentile, DEFAULT_MIN_SAMPLES);
+    }
+}
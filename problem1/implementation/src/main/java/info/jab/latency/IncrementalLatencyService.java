@@ -0,0 +1,19 @@
+package info.jab.latency;
+
+import java.util.concurrent.Flow;
+
+/**
+ * A {@link LatencyService} that can also publish the sum as it builds up, for callers that want a fast first answer
+ * refined over time instead of waiting for the slowest API.
+ */
+public interface IncrementalLatencyService extends LatencyService {
+
+    /**
+     * Returns a publisher that solves the problem for each subscriber, publishing a {@link RunningSum} each time
+     * an API completes. The publisher completes after the last API, or fails as {@link #solve()} would.
+     * Cancelling the subscription cancels the calls still in flight.
+     *
+     * @return A cold publisher of running sums.
+     */
+    Flow.Publisher<RunningSum> solveIncrementally();
+}
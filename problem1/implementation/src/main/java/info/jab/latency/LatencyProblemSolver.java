@@ -1,55 +1,468 @@
 package info.jab.latency;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.jab.latency.api.AsyncGodsFetcher;
+import info.jab.latency.api.CircuitBreakerGodsFetcher;
+import info.jab.latency.api.CircuitBreakerPolicy;
+import info.jab.latency.api.CircuitOpenException;
+import info.jab.latency.api.EndpointLatencies;
+import info.jab.latency.api.FetchDeadline;
+import info.jab.latency.api.FirstLetterFilter;
 import info.jab.latency.api.GodApiClient;
+import info.jab.latency.api.GodApiClientOptions;
 import info.jab.latency.api.GodsFetcher;
+import info.jab.latency.api.GodsSnapshotStore;
+import info.jab.latency.api.RetryPolicy;
+import info.jab.latency.api.RetryingGodsFetcher;
+import info.jab.latency.api.UnusableResponseException;
+import info.jab.latency.service.DecimalSumAccumulator;
 import info.jab.latency.service.DecimalValueConverter;
 import info.jab.latency.service.NameConverter;
+import info.jab.latency.service.ParallelDecimalSum;
 
 //Using a preview feature, so we need to suppress the warning
 @SuppressWarnings("preview")
-public class LatencyProblemSolver implements LatencyService {
+public class LatencyProblemSolver implements LetterQueryService, IncrementalLatencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyProblemSolver.class);
+    // How long an incremental solve waits for a subscriber whose buffer is full before dropping a running sum
+    private static final Duration RUNNING_SUM_OFFER_TIMEOUT = Duration.ofSeconds(1);
+    // A FirstLetterFilter rather than a lambda, so that a ByteScanningGodsFetcher can reject names from their first byte
+    private static final Predicate<String> GOD_STARTING_BY_N = FirstLetterFilter.of('n');
+    // A single instance, so that the response cache and the single-flight fetches recognize the unfiltered fetches:
+    // its identity is the point, which is why it is a constant rather than a method
+    @SuppressWarnings("UnnecessaryLambda")
+    private static final Predicate<String> ANY_GOD = s -> true;
 
     private final GodsFetcher godApiClient;
     private final DecimalValueConverter nameConverter;
     private final List<String> apiUrls;
+    private final SolverOptions options;
+    private final EndpointLatencies recentLatencies = new EndpointLatencies(HedgingPolicy.LATENCY_WINDOW_SIZE);
+    private final RequestGate requestGate;
+    private final SolveListener listener;
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private volatile @Nullable LetterIndex letterIndex;
+    private long indexGeneration; // The last build started, guarded by indexLock
+    private final LongAdder summedNames = new LongAdder();
+    private final LongAdder convertedNames = new LongAdder();
+    private final ParallelDecimalSum parallelSum = new ParallelDecimalSum(ForkJoinPool.commonPool());
 
     public LatencyProblemSolver(List<String> apiUrls, Duration apiTimeout) {
-        this.godApiClient = new GodApiClient(apiTimeout);
-        this.nameConverter = new NameConverter();
+        this(apiUrls, apiTimeout, SolverOptions.defaults());
+    }
+
+    public LatencyProblemSolver(List<String> apiUrls, Duration apiTimeout, SolverOptions options) {
+        this(apiUrls, apiTimeout, options, SolveListener.NOOP);
+    }
+
+    /**
+     * Constructs a solver reporting its solves, and the calls of its {@link GodApiClient}, to the listener.
+     *
+     * @param apiUrls The URLs of the God APIs to fetch.
+     * @param apiTimeout The timeout of the calls to the God APIs.
+     * @param options The tuning options.
+     * @param listener The listener of the solves and of the calls to the God APIs.
+     */
+    public LatencyProblemSolver(List<String> apiUrls, Duration apiTimeout, SolverOptions options, SolveListener listener) {
+        this(apiUrls, godsFetcherOf(apiTimeout, options, listener), new NameConverter(), options, listener);
+    }
+
+    public LatencyProblemSolver(List<String> apiUrls, GodsFetcher godsFetcher, DecimalValueConverter nameConverter) {
+        this(apiUrls, godsFetcher, nameConverter, SolverOptions.defaults());
+    }
+
+    public LatencyProblemSolver(List<String> apiUrls, GodsFetcher godsFetcher, DecimalValueConverter nameConverter, SolverOptions options) {
+        this(apiUrls, godsFetcher, nameConverter, options, SolveListener.NOOP);
+    }
+
+    /**
+     * Constructs a solver with explicit collaborators and options.
+     *
+     * @param apiUrls The URLs of the God APIs to fetch.
+     * @param godsFetcher The fetcher for the God APIs; it must also implement {@link AsyncGodsFetcher}
+     *        when the options select {@link FanOutMode#ASYNC}.
+     * @param nameConverter The converter from God names to decimal values.
+     * @param options The tuning options.
+     * @param listener The listener of the solves; the calls to the God APIs are only reported by the fetcher.
+     * @throws IllegalArgumentException If the fan-out mode is not supported by the fetcher.
+     */
+    public LatencyProblemSolver(List<String> apiUrls, GodsFetcher godsFetcher, DecimalValueConverter nameConverter, SolverOptions options,
+            SolveListener listener) {
+        if (options.fanOutMode() == FanOutMode.ASYNC && !(godsFetcher instanceof AsyncGodsFetcher)) {
+            throw new IllegalArgumentException("The ASYNC fan-out mode requires an AsyncGodsFetcher, but got " + godsFetcher.getClass().getName());
+        }
+        this.godApiClient = godsFetcher;
+        this.nameConverter = nameConverter;
         this.apiUrls = List.copyOf(apiUrls);
+        this.options = options;
+        this.requestGate = new RequestGate(options.concurrencyLimits());
+        this.listener = listener;
+    }
+
+    private static GodsFetcher godsFetcherOf(Duration apiTimeout, SolverOptions options, SolveListener listener) {
+        GodApiClient godApiClient = new GodApiClient(apiTimeout, GodApiClientOptions.defaults()
+                .withListener(listener)
+                .withSnapshotStore(options.staleIfError())
+                .withHttpClients(options.httpClients()));
+        GodsFetcher godsFetcher = godApiClient;
+        CircuitBreakerPolicy circuitBreaker = options.circuitBreaker();
+        if (circuitBreaker != null) {
+            godsFetcher = new CircuitBreakerGodsFetcher(godsFetcher, circuitBreaker);
+        }
+        // Outside the circuit breaker, so that every attempt counts in its window, and an open circuit is not retried
+        RetryPolicy retry = options.retry();
+        return retry != null ? new RetryingGodsFetcher(godsFetcher, retry) : godsFetcher;
     }
 
     @Override
     public BigInteger solve() {
-        // The main logic now uses the structured concurrency result directly
+        return solveWithReport().sum();
+    }
+
+    /**
+     * Solves the problem and reports which APIs contributed to the sum.
+     * Without a latency budget every API is included, or the solve fails.
+     *
+     * @return The sum with the included and missing API URLs.
+     */
+    public SolveResult solveWithReport() {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
         try {
-            List<String> godNames = fetchAllGodsFromApisStructured();
-            List<String> filteredGodNames = filterGodsByNameStartsWith(godNames);
-            List<BigInteger> decimalValues = convertGodNamesToDecimal(filteredGodNames);
-            return sumDecimalValues(decimalValues);
+            SolveResult result = fetchAndSum();
+            commitSolveEvent(event, result);
+            listener.onSolved(result, Duration.ofNanos(System.nanoTime() - start));
+            return result;
+        } catch (RuntimeException e) {
+            commitSolveEvent(event, null);
+            listener.onSolveFailed(e, Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        }
+    }
+
+    // The fields are only filled in when the event is recorded, so that a disabled event costs next to nothing
+    private void commitSolveEvent(SolveEvent event, @Nullable SolveResult result) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.fanOutMode = options.fanOutMode().name();
+            event.apis = apiUrls.size();
+            event.failed = result == null;
+            if (result != null) {
+                event.includedApis = result.includedApiUrls().size();
+                event.missingApis = result.missingApiUrls().size();
+                event.staleApis = result.staleApiUrls().size();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Publishes the running sum each time an API completes. The fetches always go through the structured fan-out,
+     * whatever the fan-out mode, with the same latency budget, hedging and concurrency limits as a solve.
+     * With a latency budget, the publisher completes at the deadline with the APIs that answered.
+     * A subscriber whose buffer stays full for a second misses a running sum, never the later ones; one that cancels
+     * its subscription stops the fan-out, which the listener is told as a cancelled solve rather than a failed one.
+     */
+    @Override
+    public Flow.Publisher<RunningSum> solveIncrementally() {
+        return subscriber -> {
+            SubmissionPublisher<RunningSum> publisher = new SubmissionPublisher<>(Thread::startVirtualThread, Flow.defaultBufferSize());
+            publisher.subscribe(subscriber);
+            Thread.ofVirtual().name("incremental-solve").start(() -> publishRunningSums(publisher));
+        };
+    }
+
+    // The owner of the fan-out: it is interrupted when the subscriber cancels, which cancels the subtasks
+    private void publishRunningSums(SubmissionPublisher<RunningSum> publisher) {
+        long start = System.nanoTime();
+        RunningSumCollector collector = new RunningSumCollector(publisher, apiUrls.size(), Thread.currentThread());
+        try {
+            List<FetchedGods> unused = fetchAllGodsFromApisStructured(GOD_STARTING_BY_N, collector::add);
+            publisher.close();
+            listener.onSolved(collector.result(), Duration.ofNanos(System.nanoTime() - start));
         } catch (InterruptedException | ExecutionException e) {
-            // Log the exception or handle it as appropriate for the application
-            // For now, rethrow as a runtime exception or return a default value
+            if (collector.isCancelled()) {
+                // Whatever the cancelled subtasks threw, the subscriber asked for it and nobody is left to tell
+                publisher.close();
+                listener.onSolveCancelled(Duration.ofNanos(System.nanoTime() - start));
+            } else {
+                failRunningSums(publisher, e, start);
+            }
+        }
+    }
+
+    private void failRunningSums(SubmissionPublisher<RunningSum> publisher, Exception exception, long start) {
+        String reason = exception instanceof InterruptedException ? "interruption" : "execution error";
+        RuntimeException failure = new RuntimeException("Failed to solve latency problem due to " + reason, exception);
+        publisher.closeExceptionally(failure);
+        listener.onSolveFailed(failure, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    // Sums each API as it completes, from its subtask, and publishes the new running sum.
+    // The monitor only guards the sum: publishing may wait for a slow subscriber, so it happens outside of it,
+    // one subtask at a time so that the running sums are never published out of order.
+    private final class RunningSumCollector {
+
+        private final SubmissionPublisher<RunningSum> publisher;
+        private final int apiCount;
+        private final Thread owner;
+        private final List<String> completedApiUrls = new ArrayList<>();
+        private final ReentrantLock publishing = new ReentrantLock();
+        private BigInteger sum = BigInteger.ZERO;
+        private int publishedApis;
+        private volatile boolean cancelled;
+
+        RunningSumCollector(SubmissionPublisher<RunningSum> publisher, int apiCount, Thread owner) {
+            this.publisher = publisher;
+            this.apiCount = apiCount;
+            this.owner = owner;
+        }
+
+        void add(String apiUrl, List<String> godNames) {
+            if (!publisher.hasSubscribers()) {
+                cancel();
+                return;
+            }
+            BigInteger apiSum = sumDecimalValues(godNames); // Converted in parallel, outside of the lock
+            synchronized (this) {
+                sum = sum.add(apiSum);
+                completedApiUrls.add(apiUrl);
+            }
+            publishing.lock();
+            try {
+                RunningSum latest = latest();
+                // Another subtask may have published this sum already, along with its own
+                if (latest.completedApiUrls().size() > publishedApis) {
+                    publishedApis = latest.completedApiUrls().size();
+                    // A subscriber too slow to take it misses this sum, not the next ones, which include it
+                    publisher.offer(latest, RUNNING_SUM_OFFER_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS,
+                            (subscriber, runningSum) -> {
+                                logger.warn("Subscriber too slow, dropping the running sum of {} APIs", runningSum.completedApiUrls().size());
+                                return false;
+                            });
+                }
+            } finally {
+                publishing.unlock();
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        // Cancelled, or failed, subscription: stop the fan-out
+        private void cancel() {
+            cancelled = true;
+            owner.interrupt();
+        }
+
+        private synchronized RunningSum latest() {
+            return new RunningSum(sum, completedApiUrls, apiCount);
+        }
+
+        // What was published, even from a subtask that completed right after the deadline
+        synchronized SolveResult result() {
+            Set<String> completed = new HashSet<>(completedApiUrls);
+            List<String> includedApiUrls = apiUrls.stream()
+                    .filter(completed::contains)
+                    .toList();
+            return new SolveResult(sum, includedApiUrls, missingApiUrls(includedApiUrls), List.of());
+        }
+    }
+
+    private SolveResult fetchAndSum() {
+        List<FetchedGods> fetchedGods = fetchAllGods(GOD_STARTING_BY_N);
+        List<String> filteredGodNames = fetchedGods.stream()
+                .map(FetchedGods::godNames)
+                .flatMap(Collection::stream)
+                .toList();
+        List<String> includedApiUrls = includedApiUrls(fetchedGods);
+        return new SolveResult(sumDecimalValues(filteredGodNames), includedApiUrls, missingApiUrls(includedApiUrls),
+                staleApiUrls(fetchedGods));
+    }
+
+    /**
+     * Returns the sum of the decimal values of the God names starting with the letter, from the current index.
+     * The first query builds the index, fetching every API once; later queries cost a map lookup until
+     * {@link #refreshIndex()} is called.
+     */
+    @Override
+    public BigInteger solve(char letter) {
+        return letterIndex().sum(letter);
+    }
+
+    @Override
+    public BigInteger solve(Set<Character> letters) {
+        return letterIndex().sum(letters);
+    }
+
+    /**
+     * Returns the current index, building it on first use. The options apply to the fetch as to a solve:
+     * with a latency budget the index may be partial. Queries racing for the first index each build one.
+     *
+     * @return The current index.
+     */
+    public LetterIndex letterIndex() {
+        LetterIndex index = letterIndex;
+        return index != null ? index : buildLetterIndex();
+    }
+
+    @Override
+    public LetterIndex refreshIndex() {
+        return buildLetterIndex();
+    }
+
+    // Fetches every name once and sums them per first letter. The lock is only held to number the build and to
+    // publish it, not during the fan-out, so that queries keep being answered from the current index meanwhile.
+    // Of concurrent builds, the one started last is published, even if it completes first.
+    private LetterIndex buildLetterIndex() {
+        long generation;
+        indexLock.lock();
+        try {
+            generation = ++indexGeneration;
+        } finally {
+            indexLock.unlock();
+        }
+        List<FetchedGods> fetchedGods = fetchAllGods(ANY_GOD);
+        Map<Character, DecimalSumAccumulator> accumulators = new HashMap<>();
+        for (FetchedGods fetched : fetchedGods) {
+            for (String godName : fetched.godNames()) {
+                if (!godName.isEmpty()) {
+                    accumulators.computeIfAbsent(LetterIndex.letterOf(godName), letter -> new DecimalSumAccumulator())
+                            .add(nameConverter, godName);
+                }
+            }
+        }
+        Map<Character, BigInteger> sumsByLetter = new HashMap<>();
+        accumulators.forEach((letter, accumulator) -> sumsByLetter.put(letter, accumulator.sum()));
+        List<String> includedApiUrls = includedApiUrls(fetchedGods);
+        LetterIndex index = new LetterIndex(generation, sumsByLetter, includedApiUrls, missingApiUrls(includedApiUrls),
+                staleApiUrls(fetchedGods));
+        indexLock.lock();
+        try {
+            LetterIndex current = letterIndex;
+            if (current != null && current.generation() > generation) {
+                return current;
+            }
+            letterIndex = index;
+            return index;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private List<FetchedGods> fetchAllGods(Predicate<String> filter) {
+        // The main logic now uses the structured concurrency result directly
+        try {
+            return switch (options.fanOutMode()) {
+                case STRUCTURED -> fetchAllGodsFromApisStructured(filter, (apiUrl, godNames) -> {});
+                case ASYNC -> fetchAllGodsFromApisAsync(filter);
+            };
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Preserve interrupt status
-            throw new RuntimeException("Failed to solve latency problem due to interruption or execution error", e);
+            throw new RuntimeException("Failed to solve latency problem due to interruption", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to solve latency problem due to execution error", e);
+        }
+    }
+
+    private static List<String> includedApiUrls(List<FetchedGods> fetchedGods) {
+        return fetchedGods.stream()
+                .map(FetchedGods::apiUrl)
+                .toList();
+    }
+
+    private static List<String> staleApiUrls(List<FetchedGods> fetchedGods) {
+        return fetchedGods.stream()
+                .filter(FetchedGods::stale)
+                .map(FetchedGods::apiUrl)
+                .toList();
+    }
+
+    private List<String> missingApiUrls(List<String> includedApiUrls) {
+        Set<String> included = new HashSet<>(includedApiUrls);
+        return apiUrls.stream()
+                .filter(apiUrl -> !included.contains(apiUrl))
+                .toList();
+    }
+
+    // The God names fetched from one API, already filtered; stale if they come from its last snapshot
+    private record FetchedGods(String apiUrl, List<String> godNames, boolean stale) {}
+
+    // An API answering an error status or a malformed payload, or whose circuit is open, without a snapshot,
+    // still counts with no names
+    private static Optional<FetchedGods> withoutGodNames(String apiUrl, Throwable failure) {
+        if (!isUnusableResponse(failure)) {
+            return Optional.empty();
         }
+        logger.warn("API {} gave no god names, summing none: {}", apiUrl, failure.getMessage());
+        return Optional.of(new FetchedGods(apiUrl, List.of(), false));
     }
 
-    // New method using StructuredTaskScope
-    private List<String> fetchAllGodsFromApisStructured() throws InterruptedException, ExecutionException {
+    private static boolean isUnusableResponse(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof UnusableResponseException || cause instanceof CircuitOpenException;
+    }
+
+    // The last snapshot of the API, if the options enable the fallback and there is one
+    private Optional<FetchedGods> staleGods(String apiUrl, Predicate<String> filter) {
+        GodsSnapshotStore store = options.staleIfError();
+        if (store == null) {
+            return Optional.empty();
+        }
+        return store.load(apiUrl).map(snapshot -> {
+            logger.warn("Serving the snapshot of API {} saved at {}", apiUrl, snapshot.savedAt());
+            List<String> godNames = snapshot.godNames().stream()
+                    .filter(filter)
+                    .toList();
+            return new FetchedGods(apiUrl, godNames, true);
+        });
+    }
+
+    // New method using StructuredTaskScope, the filter is applied by the fetcher while each response is parsed
+    // onFetched is called from each subtask as soon as its API answered
+    private List<FetchedGods> fetchAllGodsFromApisStructured(Predicate<String> filter, BiConsumer<String, List<String>> onFetched)
+            throws InterruptedException, ExecutionException {
+        Duration latencyBudget = options.latencyBudget();
+        if (latencyBudget != null) {
+            return fetchAvailableGodsFromApisStructured(Instant.now().plus(latencyBudget), filter, onFetched);
+        }
         try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
-            List<StructuredTaskScope.Subtask<List<String>>> subtasks = apiUrls.stream()
-                    .map(apiUrl -> scope.fork(() -> godApiClient.fetchGods(apiUrl)))
+            List<StructuredTaskScope.Subtask<FetchedGods>> subtasks = apiUrls.stream()
+                    .map(apiUrl -> scope.fork(() -> fetchGodsGated(apiUrl, filter, onFetched)))
                     .toList();
 
             scope.join().throwIfFailed(); // Wait for all tasks and throw if any failed
@@ -57,28 +470,254 @@ public class LatencyProblemSolver implements LatencyService {
             // Collect results from all subtasks
             return subtasks.stream()
                     .map(StructuredTaskScope.Subtask::get)
-                    .flatMap(Collection::stream)
                     .toList();
         }
     }
 
-    private Predicate<String> godStartingByn = s -> s.toLowerCase(Locale.ROOT).charAt(0) == 'n';
+    // Partial results: keeps the APIs that answered before the deadline, the stragglers are cancelled.
+    // The deadline is bound for the subtasks, so that a retrying fetcher does not wait past it
+    private List<FetchedGods> fetchAvailableGodsFromApisStructured(Instant deadline, Predicate<String> filter,
+            BiConsumer<String, List<String>> onFetched) throws InterruptedException {
+        return FetchDeadline.within(deadline, () -> fetchAvailableGodsWithin(deadline, filter, onFetched));
+    }
+
+    private List<FetchedGods> fetchAvailableGodsWithin(Instant deadline, Predicate<String> filter,
+            BiConsumer<String, List<String>> onFetched) throws InterruptedException {
+        try (var scope = new PartialResultsScope<FetchedGods>(deadline)) {
+            List<StructuredTaskScope.Subtask<FetchedGods>> subtasks = apiUrls.stream()
+                    .map(apiUrl -> scope.fork(() -> fetchGodsGated(apiUrl, filter, onFetched)))
+                    .toList();
+
+            scope.join(); // Wait for all tasks or the deadline
 
-    private List<String> filterGodsByNameStartsWith(List<String> godNames) {
-        List<String> filteredGodNames = godNames.stream()
-                .filter(godStartingByn)
-                .collect(Collectors.toList());
-        return filteredGodNames;
+            List<FetchedGods> fetchedGods = new ArrayList<>();
+            for (int i = 0; i < subtasks.size(); i++) {
+                StructuredTaskScope.Subtask<FetchedGods> subtask = subtasks.get(i);
+                String apiUrl = apiUrls.get(i);
+                switch (subtask.state()) {
+                    case SUCCESS -> fetchedGods.add(subtask.get());
+                    case FAILED -> logger.warn("API {} failed, leaving it out of the sum: {}", apiUrl, subtask.exception().toString());
+                    case UNAVAILABLE -> staleGods(apiUrl, filter).ifPresentOrElse(fetchedGods::add,
+                            () -> logger.warn("API {} did not answer within the latency budget, leaving it out of the sum", apiUrl));
+                }
+            }
+            return fetchedGods;
+        }
     }
 
-    private List<BigInteger> convertGodNamesToDecimal(List<String> godNames) {
-        return godNames.stream()
-                .map(nameConverter::convertToDecimal)
-                .toList();
+    // Every subtask is forked right away, but only the ones holding the permits call their API: the others are
+    // parked virtual threads, and the results are still collected in URL order.
+    // A failed API falls back to its snapshot, if any, before the scope sees the failure; without one, an API that
+    // answered an error status or a malformed payload, or whose circuit is open, sums no names rather than failing the scope.
+    private FetchedGods fetchGodsGated(String apiUrl, Predicate<String> filter, BiConsumer<String, List<String>> onFetched)
+            throws IOException, InterruptedException {
+        FetchedGods fetched;
+        requestGate.acquire(apiUrl, null);
+        try {
+            fetched = new FetchedGods(apiUrl, fetchGods(apiUrl, filter), false);
+        } catch (IOException e) {
+            fetched = staleGods(apiUrl, filter).or(() -> withoutGodNames(apiUrl, e)).orElseThrow(() -> e);
+        } finally {
+            requestGate.release(apiUrl);
+        }
+        onFetched.accept(apiUrl, fetched.godNames());
+        return fetched;
+    }
+
+    // Fetches the God names of one API within the structured fan-out, hedged if the options say so
+    private List<String> fetchGods(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        HedgingPolicy hedging = options.hedging();
+        if (hedging == null) {
+            return godApiClient.fetchGods(apiUrl, filter);
+        }
+        Optional<Duration> hedgeDelay = recentLatencies.percentile(apiUrl, hedging.percentile(), hedging.minSamples());
+        if (hedgeDelay.isEmpty()) {
+            return fetchGodsTimed(apiUrl, filter); // Not enough samples yet to know what slow is for this API
+        }
+        // The first successful response wins, and the scope cancels the other request
+        try (var scope = new StructuredTaskScope.ShutdownOnSuccess<List<String>>()) {
+            scope.fork(() -> fetchGodsTimed(apiUrl, filter));
+            try {
+                scope.joinUntil(Instant.now().plus(hedgeDelay.get()));
+            } catch (TimeoutException e) {
+                // The hedged request needs permits of its own, or it would double the load the limits allow
+                if (requestGate.tryAcquire(apiUrl)) {
+                    logger.debug("API {} has not answered within {}, issuing a hedged request", apiUrl, hedgeDelay.get());
+                    scope.fork(() -> {
+                        try {
+                            return fetchGodsTimed(apiUrl, filter);
+                        } finally {
+                            requestGate.release(apiUrl);
+                        }
+                    });
+                } else {
+                    logger.debug("API {} has not answered within {}, but no permit is free to hedge", apiUrl, hedgeDelay.get());
+                }
+                scope.join();
+            }
+            return scope.result(cause -> cause instanceof IOException ioException ? ioException : new IOException(cause));
+        }
+    }
+
+    private List<String> fetchGodsTimed(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        List<String> godNames = godApiClient.fetchGods(apiUrl, filter);
+        recentLatencies.record(apiUrl, Duration.ofNanos(System.nanoTime() - start));
+        return godNames;
+    }
+
+    // Composes non-blocking requests instead of parking one thread per URL. As ShutdownOnFailure,
+    // the first failure fails the fan-out and cancels the requests still in flight.
+    // With a latency budget, the futures completed by the deadline are kept instead, as PartialResultsScope does.
+    // With concurrency limits, the solving thread waits for the permits before sending each request, in URL order.
+    private List<FetchedGods> fetchAllGodsFromApisAsync(Predicate<String> filter) throws InterruptedException, ExecutionException {
+        AsyncGodsFetcher asyncGodsFetcher = (AsyncGodsFetcher) godApiClient;
+        Duration latencyBudget = options.latencyBudget();
+        Instant deadline = latencyBudget != null ? Instant.now().plus(latencyBudget) : null;
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(apiUrls.size());
+
+        try {
+            for (String apiUrl : apiUrls) {
+                futures.add(sendGated(asyncGodsFetcher, apiUrl, filter, deadline, firstFailure));
+            }
+            CompletableFuture<Void> allCompleted = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+            if (deadline != null) {
+                long remainingNanos = Duration.between(Instant.now(), deadline).toNanos();
+                allCompleted.get(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS); // Wait for all futures or the deadline
+            } else {
+                CompletableFuture.anyOf(allCompleted, firstFailure).get(); // Wait for all futures or the first failure
+            }
+        } catch (TimeoutException e) {
+            // Only with a latency budget: the stragglers are left out below
+        } catch (ExecutionException e) {
+            if (latencyBudget == null && !failuresHaveSnapshots(futures)) {
+                throw e;
+            }
+            // With a latency budget, the failures are left out below, or replaced by their snapshots
+        } finally {
+            futures.forEach(future -> future.cancel(true)); // No-op for the completed ones
+        }
+
+        List<FetchedGods> fetchedGods = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<List<String>> future = futures.get(i);
+            String apiUrl = apiUrls.get(i);
+            switch (future.state()) {
+                case SUCCESS -> fetchedGods.add(new FetchedGods(apiUrl, future.resultNow(), false));
+                case FAILED -> staleGods(apiUrl, filter).or(() -> withoutGodNames(apiUrl, future.exceptionNow()))
+                        .ifPresentOrElse(fetchedGods::add,
+                                () -> logger.warn("API {} failed, leaving it out of the sum: {}", apiUrl, future.exceptionNow().toString()));
+                case CANCELLED, RUNNING -> staleGods(apiUrl, filter).ifPresentOrElse(fetchedGods::add,
+                        () -> logger.warn("API {} did not answer within the latency budget, leaving it out of the sum", apiUrl));
+            }
+        }
+        return fetchedGods;
+    }
+
+    // Decided on the futures rather than on firstFailure, which their failing dependents may not have completed yet.
+    // The unusable responses and open circuits need no snapshot, they sum no names without one.
+    private boolean failuresHaveSnapshots(List<CompletableFuture<List<String>>> futures) {
+        GodsSnapshotStore store = options.staleIfError();
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<List<String>> future = futures.get(i);
+            boolean unusableResponse = future.state() == Future.State.FAILED && isUnusableResponse(future.exceptionNow());
+            if (future.isCompletedExceptionally() && !unusableResponse && (store == null || store.load(apiUrls.get(i)).isEmpty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sends one request once the permits are acquired; the requests that cannot be sent before the deadline
+    // or after a failure are cancelled right away
+    private CompletableFuture<List<String>> sendGated(AsyncGodsFetcher asyncGodsFetcher, String apiUrl, Predicate<String> filter,
+            @Nullable Instant deadline, CompletableFuture<Void> firstFailure) throws InterruptedException {
+        if ((deadline == null && firstFailure.isDone()) || !requestGate.acquire(apiUrl, deadline)) {
+            return CompletableFuture.failedFuture(new CancellationException("Not sent: " + apiUrl));
+        }
+        CompletableFuture<List<String>> future;
+        try {
+            future = asyncGodsFetcher.fetchGodsAsync(apiUrl, filter);
+        } catch (RuntimeException e) {
+            requestGate.release(apiUrl);
+            throw e;
+        }
+        GodsSnapshotStore store = options.staleIfError();
+        CompletableFuture<List<String>> unused = future.whenComplete((gods, throwable) -> {
+            requestGate.release(apiUrl);
+            if (throwable != null && !isUnusableResponse(throwable) && (store == null || store.load(apiUrl).isEmpty())) {
+                firstFailure.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    // Converts and sums in a single pass, without materializing the intermediate BigInteger values.
+    // Above the parallel conversion threshold, the names to convert are split across the common ForkJoinPool.
+    // Package-private so that the JMH benchmarks can measure it in isolation.
+    BigInteger sumDecimalValues(List<String> godNames) {
+        ConvertAndSumEvent event = new ConvertAndSumEvent();
+        event.begin();
+        BigInteger sum;
+        long converted = godNames.size();
+        boolean parallel;
+        if (options.deduplicateNames()) {
+            // The same name often comes from several APIs: convert it once and multiply by its count
+            Map<String, Long> counts = new HashMap<>();
+            for (String godName : godNames) {
+                counts.merge(godName, 1L, Long::sum);
+            }
+            summedNames.add(godNames.size());
+            convertedNames.add(counts.size());
+            converted = counts.size();
+            parallel = counts.size() >= options.parallelConversionThreshold();
+            sum = parallel ? sumInParallel(counts) : sumCounted(counts);
+        } else {
+            parallel = godNames.size() >= options.parallelConversionThreshold();
+            sum = parallel ? parallelSum.sum(nameConverter, godNames) : sum(godNames);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.godNames = godNames.size();
+            event.convertedNames = converted;
+            event.parallel = parallel;
+            event.sumBitLength = sum.bitLength();
+            event.commit();
+        }
+        return sum;
+    }
+
+    private BigInteger sum(List<String> godNames) {
+        DecimalSumAccumulator accumulator = new DecimalSumAccumulator();
+        for (String godName : godNames) {
+            accumulator.add(nameConverter, godName);
+        }
+        return accumulator.sum();
+    }
+
+    private BigInteger sumCounted(Map<String, Long> counts) {
+        DecimalSumAccumulator accumulator = new DecimalSumAccumulator();
+        counts.forEach((godName, count) -> accumulator.add(nameConverter, godName, count));
+        return accumulator.sum();
+    }
+
+    private BigInteger sumInParallel(Map<String, Long> counts) {
+        List<String> distinctNames = new ArrayList<>(counts.size());
+        long[] times = new long[counts.size()];
+        counts.forEach((godName, count) -> {
+            times[distinctNames.size()] = count;
+            distinctNames.add(godName);
+        });
+        return parallelSum.sum(nameConverter, distinctNames, times);
     }
 
-    private BigInteger sumDecimalValues(List<BigInteger> decimalValues) {
-        return decimalValues.stream()
-                .reduce(BigInteger.ZERO, BigInteger::add);
+    /**
+     * Returns how many conversions the name deduplication saved so far; all zero unless the options enable it.
+     *
+     * @return The deduplication counters.
+     */
+    public DeduplicationStats deduplicationStats() {
+        return new DeduplicationStats(summedNames.sum(), convertedNames.sum());
     }
 }
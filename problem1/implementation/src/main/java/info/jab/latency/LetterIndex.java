@@ -0,0 +1,89 @@
+package info.jab.latency;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The sums of the decimal values of the God names per first letter, for one fetch of every API (a generation).
+ * Letters are compared the way the original filter did, on the first char of the name in lower case.
+ *
+ * @param generation The number of the fetch the index was built from, starting at 1.
+ * @param sumsByLetter The sum of the decimal values of the God names, per lower-case first letter.
+ * @param includedApiUrls The URLs of the APIs that answered in time, in configuration order.
+ * @param missingApiUrls The URLs of the APIs that failed or did not answer within the latency budget.
+ * @param staleApiUrls The included APIs that contributed their last snapshot instead of a fresh response.
+ */
+public record LetterIndex(long generation, Map<Character, BigInteger> sumsByLetter, List<String> includedApiUrls,
+        List<String> missingApiUrls, List<String> staleApiUrls) {
+
+    public LetterIndex {
+        sumsByLetter = Map.copyOf(sumsByLetter);
+        includedApiUrls = List.copyOf(includedApiUrls);
+        missingApiUrls = List.copyOf(missingApiUrls);
+        staleApiUrls = List.copyOf(staleApiUrls);
+    }
+
+    /**
+     * Returns the sum of the decimal values of the God names starting with the letter, in any case.
+     *
+     * @param letter The first letter.
+     * @return The sum, zero if no God name starts with the letter.
+     */
+    public BigInteger sum(char letter) {
+        return sumsByLetter.getOrDefault(normalize(letter), BigInteger.ZERO);
+    }
+
+    /**
+     * Returns the sum of the decimal values of the God names starting with any of the letters, in any case.
+     *
+     * @param letters The first letters; the same letter in both cases is counted once.
+     * @return The sum, zero if no God name starts with the letters.
+     */
+    public BigInteger sum(Set<Character> letters) {
+        Set<Character> normalized = new HashSet<>();
+        for (char letter : letters) {
+            normalized.add(normalize(letter));
+        }
+        BigInteger sum = BigInteger.ZERO;
+        for (char letter : normalized) {
+            sum = sum.add(sumsByLetter.getOrDefault(letter, BigInteger.ZERO));
+        }
+        return sum;
+    }
+
+    /**
+     * Tells whether some APIs are missing from the index.
+     *
+     * @return true if the index only covers part of the APIs.
+     */
+    public boolean isPartial() {
+        return !missingApiUrls.isEmpty();
+    }
+
+    /**
+     * Tells whether some APIs contributed stale names to the index.
+     *
+     * @return true if the index includes snapshots of past responses.
+     */
+    public boolean isStale() {
+        return !staleApiUrls.isEmpty();
+    }
+
+    /**
+     * Returns the letter under which a God name is indexed.
+     *
+     * @param godName A non-empty God name.
+     * @return The first char of the name in lower case.
+     */
+    static char letterOf(String godName) {
+        return godName.toLowerCase(Locale.ROOT).charAt(0);
+    }
+
+    private static char normalize(char letter) {
+        return letterOf(String.valueOf(letter));
+    }
+}
@@ -0,0 +1,34 @@
+package info.jab.latency;
+
+import java.math.BigInteger;
+import java.util.Set;
+
+/**
+ * A {@link LatencyService} that also answers for other first letters than the one of {@link #solve()}.
+ * Queries are served from a {@link LetterIndex} built once per fetch of the APIs, until it is refreshed.
+ */
+public interface LetterQueryService extends LatencyService {
+
+    /**
+     * Returns the sum of the decimal values of the God names starting with the letter, in any case.
+     *
+     * @param letter The first letter.
+     * @return The sum from the current index.
+     */
+    BigInteger solve(char letter);
+
+    /**
+     * Returns the sum of the decimal values of the God names starting with any of the letters, in any case.
+     *
+     * @param letters The first letters.
+     * @return The sum from the current index.
+     */
+    BigInteger solve(Set<Character> letters);
+
+    /**
+     * Fetches every API again and replaces the current index, which keeps answering the queries meanwhile.
+     *
+     * @return The new index, or a newer one if another refresh started later and completed first.
+     */
+    LetterIndex refreshIndex();
+}
@@ -0,0 +1,47 @@
+package info.jab.latency;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Thrown while reading the {@link BatchJob}s of a batch when a line does not describe a valid job.
+ * {@link BatchSolver} reports it as a failed result and goes on with the next jobs.
+ */
+public class MalformedJobException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int lineNumber;
+    private final @Nullable String jobId;
+
+    /**
+     * Constructs the exception for a malformed line.
+     *
+     * @param lineNumber The number of the line, starting at 1.
+     * @param jobId The identifier of the job if the line has one, or null.
+     * @param message What is wrong with the line.
+     * @param cause The parsing or validation error, or null.
+     */
+    public MalformedJobException(int lineNumber, @Nullable String jobId, String message, @Nullable Throwable cause) {
+        super("Line " + lineNumber + ": " + message, cause);
+        this.lineNumber = lineNumber;
+        this.jobId = jobId;
+    }
+
+    /**
+     * Returns the number of the malformed line.
+     *
+     * @return The line number, starting at 1.
+     */
+    public int lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the identifier of the job, if the line has one.
+     *
+     * @return The job identifier, or null.
+     */
+    public @Nullable String jobId() {
+        return jobId;
+    }
+}
@@ -0,0 +1,39 @@
+package info.jab.latency;
+
+import java.time.Instant;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A StructuredTaskScope policy with an overall latency budget: failed subtasks do not shut the scope down,
+ * and when the deadline passes the scope is shut down, cancelling the subtasks still running.
+ * After {@link #join()} the owner keeps the subtasks in {@link Subtask.State#SUCCESS} state and ignores the rest.
+ *
+ * @param <T> the result type of the subtasks
+ */
+//Using a preview feature, so we need to suppress the warning
+@SuppressWarnings("preview")
+final class PartialResultsScope<T> extends StructuredTaskScope<T> {
+
+    private final Instant deadline;
+
+    PartialResultsScope(Instant deadline) {
+        super(null, Thread.ofVirtual().factory());
+        this.deadline = deadline;
+    }
+
+    /**
+     * Waits for all subtasks to finish or for the deadline to pass, whichever happens first.
+     * When the deadline passes, the scope is shut down and the stragglers are cancelled.
+     */
+    @Override
+    public PartialResultsScope<T> join() throws InterruptedException {
+        try {
+            super.joinUntil(deadline);
+        } catch (TimeoutException e) {
+            shutdown();
+            super.join(); // Returns immediately once shut down, and lets the owner access the subtasks
+        }
+        return this;
+    }
+}
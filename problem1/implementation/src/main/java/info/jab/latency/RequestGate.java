@@ -0,0 +1,94 @@
+package info.jab.latency;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Semaphores enforcing {@link ConcurrencyLimits}: a permit for the host of the API URL, then a global one.
+ * Always acquiring in that order keeps callers from deadlocking each other.
+ */
+final class RequestGate {
+
+    private final ConcurrencyLimits limits;
+    private final Semaphore global;
+    private final Map<String, Semaphore> perHost = new ConcurrentHashMap<>();
+
+    RequestGate(ConcurrencyLimits limits) {
+        this.limits = limits;
+        this.global = new Semaphore(limits.maxConcurrentRequests(), true);
+    }
+
+    /**
+     * Waits for the permits to call the given API URL, until the deadline if any.
+     *
+     * @return true if the permits were acquired, false if the deadline passed first.
+     */
+    boolean acquire(String apiUrl, @Nullable Instant deadline) throws InterruptedException {
+        if (limits.isUnlimited()) {
+            return true;
+        }
+        Semaphore host = hostSemaphore(apiUrl);
+        if (!acquire(host, deadline)) {
+            return false;
+        }
+        if (!acquire(global, deadline)) {
+            host.release();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Acquires the permits to call the given API URL only if both are free right away, e.g. for a hedged request.
+     *
+     * @return true if the permits were acquired, false if either was taken.
+     */
+    boolean tryAcquire(String apiUrl) {
+        if (limits.isUnlimited()) {
+            return true;
+        }
+        Semaphore host = hostSemaphore(apiUrl);
+        if (!host.tryAcquire()) {
+            return false;
+        }
+        if (!global.tryAcquire()) {
+            host.release();
+            return false;
+        }
+        return true;
+    }
+
+    void release(String apiUrl) {
+        if (limits.isUnlimited()) {
+            return;
+        }
+        global.release();
+        hostSemaphore(apiUrl).release();
+    }
+
+    private Semaphore hostSemaphore(String apiUrl) {
+        return perHost.computeIfAbsent(hostKey(apiUrl), host -> new Semaphore(limits.maxConcurrentRequestsPerHost(), true));
+    }
+
+    private static boolean acquire(Semaphore semaphore, @Nullable Instant deadline) throws InterruptedException {
+        if (deadline == null) {
+            semaphore.acquire();
+            return true;
+        }
+        long remainingNanos = Duration.between(Instant.now(), deadline).toNanos();
+        return semaphore.tryAcquire(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+    }
+
+    // Connections are per host and port, so is the limit
+    private static String hostKey(String apiUrl) {
+        String authority = URI.create(apiUrl).getAuthority();
+        return authority != null ? authority : apiUrl;
+    }
+}
@@ -0,0 +1,27 @@
+package info.jab.latency;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * A refinement of the sum during an incremental solve, published each time an API completes.
+ *
+ * @param sum The sum of the decimal values of the matching God names from the completed APIs.
+ * @param completedApiUrls The URLs of the APIs that answered so far, in completion order.
+ * @param apiCount The number of APIs of the solve.
+ */
+public record RunningSum(BigInteger sum, List<String> completedApiUrls, int apiCount) {
+
+    public RunningSum {
+        completedApiUrls = List.copyOf(completedApiUrls);
+    }
+
+    /**
+     * Tells whether every API contributed to the sum, which is then final.
+     *
+     * @return true if every API answered.
+     */
+    public boolean isComplete() {
+        return completedApiUrls.size() == apiCount;
+    }
+}
@@ -0,0 +1,74 @@
+package info.jab.latency;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link LatencyService} decorator that coalesces concurrent calls to {@link #solve()}: while a solve is in flight,
+ * other callers wait for it and share its result instead of fanning out to every API again.
+ * A caller may thus get the result of a solve that started shortly before its call. Nothing is cached once
+ * the solve completes.
+ *
+ * <p>To share the fetches but still compute one result per caller, decorate the fetcher with
+ * {@link info.jab.latency.api.SingleFlightGodsFetcher} instead.
+ */
+public class SingleFlightLatencyService implements LatencyService {
+
+    private final LatencyService delegate;
+    private final AtomicReference<CompletableFuture<BigInteger>> inFlight = new AtomicReference<>();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    /**
+     * Constructs a SingleFlightLatencyService sharing the in-flight solves of the delegate.
+     *
+     * @param delegate The service that actually solves the problem.
+     */
+    public SingleFlightLatencyService(LatencyService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public BigInteger solve() {
+        CompletableFuture<BigInteger> flight = new CompletableFuture<>();
+        CompletableFuture<BigInteger> existing = inFlight.compareAndExchange(null, flight);
+        if (existing == null) {
+            return lead(flight);
+        }
+        coalescedCalls.increment();
+        try {
+            return existing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Preserve interrupt status
+            throw new RuntimeException("Interrupted while waiting for a shared solve", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Shared solve failed", e.getCause());
+        }
+    }
+
+    /**
+     * Returns how many calls were served by a solve already in flight.
+     *
+     * @return The number of coalesced calls so far.
+     */
+    public long coalescedCalls() {
+        return coalescedCalls.sum();
+    }
+
+    private BigInteger lead(CompletableFuture<BigInteger> flight) {
+        BigInteger sum;
+        try {
+            sum = delegate.solve();
+        } catch (Throwable t) {
+            // Leave first, so that nobody joins a solve that is already over
+            inFlight.set(null);
+            flight.completeExceptionally(t);
+            throw t;
+        }
+        inFlight.set(null);
+        flight.complete(sum);
+        return sum;
+    }
+}
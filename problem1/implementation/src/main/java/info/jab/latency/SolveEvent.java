@@ -0,0 +1,42 @@
+package info.jab.latency;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A whole {@link LatencyProblemSolver#solveWithReport()}, from the fan-out to the sum. Its fetch, parse and
+ * convert-and-sum events happen within it. Disabled unless a recording enables it.
+ */
+@Name(SolveEvent.NAME)
+@Label("Solve")
+@Category({"Latency Problem", "Solver"})
+@Description("A solve, from the fan-out to the sum")
+@Enabled(false)
+@StackTrace(false)
+final class SolveEvent extends Event {
+
+    static final String NAME = "info.jab.latency.Solve";
+
+    @Label("Fan-out Mode")
+    String fanOutMode = "";
+
+    @Label("APIs")
+    int apis;
+
+    @Label("Included APIs")
+    int includedApis;
+
+    @Label("Missing APIs")
+    int missingApis;
+
+    @Label("Stale APIs")
+    int staleApis;
+
+    @Label("Failed")
+    boolean failed;
+}
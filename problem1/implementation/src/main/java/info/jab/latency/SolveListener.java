@@ -0,0 +1,38 @@
+package info.jab.latency;
+
+import java.time.Duration;
+
+import info.jab.latency.api.ApiCallListener;
+
+/**
+ * Receives the outcome of every solve of {@link LatencyProblemSolver}, on top of the calls to the APIs
+ * made by its {@link info.jab.latency.api.GodApiClient}. All methods do nothing by default.
+ */
+public interface SolveListener extends ApiCallListener {
+
+    /** A listener ignoring every solve and call. */
+    SolveListener NOOP = new SolveListener() {};
+
+    /**
+     * Called when a solve completed, possibly with partial results.
+     *
+     * @param result The sum with the included and missing API URLs.
+     * @param elapsed The time the solve took.
+     */
+    default void onSolved(SolveResult result, Duration elapsed) {}
+
+    /**
+     * Called when a solve failed.
+     *
+     * @param exception The exception thrown to the caller of the solve.
+     * @param elapsed The time until the solve failed.
+     */
+    default void onSolveFailed(RuntimeException exception, Duration elapsed) {}
+
+    /**
+     * Called when an incremental solve stopped because its subscriber cancelled its subscription.
+     *
+     * @param elapsed The time until the solve stopped.
+     */
+    default void onSolveCancelled(Duration elapsed) {}
+}
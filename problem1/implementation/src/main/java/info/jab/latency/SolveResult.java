@@ -0,0 +1,39 @@
+package info.jab.latency;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * The outcome of a solve, with the APIs that contributed to the sum.
+ *
+ * @param sum The sum of the decimal values of the matching God names from the included APIs.
+ * @param includedApiUrls The URLs of the APIs that answered in time, in configuration order.
+ * @param missingApiUrls The URLs of the APIs that failed or did not answer within the latency budget.
+ * @param staleApiUrls The included APIs that contributed their last snapshot instead of a fresh response.
+ */
+public record SolveResult(BigInteger sum, List<String> includedApiUrls, List<String> missingApiUrls, List<String> staleApiUrls) {
+
+    public SolveResult {
+        includedApiUrls = List.copyOf(includedApiUrls);
+        missingApiUrls = List.copyOf(missingApiUrls);
+        staleApiUrls = List.copyOf(staleApiUrls);
+    }
+
+    /**
+     * Tells whether some APIs are missing from the sum.
+     *
+     * @return true if the sum only covers part of the APIs.
+     */
+    public boolean isPartial() {
+        return !missingApiUrls.isEmpty();
+    }
+
+    /**
+     * Tells whether some APIs contributed stale names to the sum.
+     *
+     * @return true if the sum includes snapshots of past responses.
+     */
+    public boolean isStale() {
+        return !staleApiUrls.isEmpty();
+    }
+}
@@ -0,0 +1,154 @@
+package info.jab.latency;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.jspecify.annotations.Nullable;
+
+import info.jab.latency.api.CircuitBreakerPolicy;
+import info.jab.latency.api.GodsSnapshotStore;
+import info.jab.latency.api.HttpClientFactory;
+import info.jab.latency.api.RetryPolicy;
+
+/**
+ * Tuning options for {@link LatencyProblemSolver}.
+ * Start from {@link #defaults()} and override the options that matter with the {@code with*} methods.
+ *
+ * @param fanOutMode How the calls to the God APIs are fanned out.
+ * @param latencyBudget The overall time budget of the fan-out, or null for none. With a budget, APIs that fail
+ *        or do not answer in time are left out of the sum instead of failing the solve.
+ * @param hedging When to issue a duplicate request to a slow API, or null to never hedge.
+ *        Only supported by the {@link FanOutMode#STRUCTURED} fan-out.
+ * @param concurrencyLimits How many requests may be in flight at once, overall and per host.
+ * @param deduplicateNames Whether the God names are counted before being summed, so that a name appearing
+ *        several times is converted once and multiplied by its count.
+ * @param staleIfError The snapshots of the last good payload of each API, or null for none. With snapshots, an API
+ *        that fails, answers an error status or a malformed payload, or does not answer within the latency budget
+ *        contributes its snapshot, flagged as stale, instead of failing the solve, summing no names or being left out.
+ * @param parallelConversionThreshold The number of names from which they are converted and summed in parallel,
+ *        on the common ForkJoinPool; {@link #SEQUENTIAL_CONVERSION} to always convert them on the solving thread.
+ * @param httpClients The factory of the HTTP client of the {@link info.jab.latency.api.GodApiClient} the solver builds;
+ *        ignored when the solver is given its fetcher. {@link HttpClientFactory#shared()} reuses the connections
+ *        across solvers.
+ * @param retry When the {@link info.jab.latency.api.GodApiClient} the solver builds calls an API again after a transient
+ *        failure, or null to never retry; ignored when the solver is given its fetcher, which may be wrapped in a
+ *        {@link info.jab.latency.api.RetryingGodsFetcher} instead. Only supported by the {@link FanOutMode#STRUCTURED} fan-out.
+ * @param circuitBreaker When the {@link info.jab.latency.api.GodApiClient} the solver builds stops calling a failing API
+ *        for a while, or null to always call it; ignored when the solver is given its fetcher, which may be wrapped in a
+ *        {@link info.jab.latency.api.CircuitBreakerGodsFetcher} instead. An API whose circuit is open contributes its
+ *        snapshot, if any, or else no names, rather than failing the solve. Only supported by the
+ *        {@link FanOutMode#STRUCTURED} fan-out.
+ */
+public record SolverOptions(FanOutMode fanOutMode, @Nullable Duration latencyBudget, @Nullable HedgingPolicy hedging,
+        ConcurrencyLimits concurrencyLimits, boolean deduplicateNames, @Nullable GodsSnapshotStore staleIfError,
+        int parallelConversionThreshold, HttpClientFactory httpClients, @Nullable RetryPolicy retry,
+        @Nullable CircuitBreakerPolicy circuitBreaker) {
+
+    /** The parallel conversion threshold that is never reached. */
+    public static final int SEQUENTIAL_CONVERSION = Integer.MAX_VALUE;
+
+    public SolverOptions {
+        Objects.requireNonNull(fanOutMode, "fanOutMode");
+        Objects.requireNonNull(concurrencyLimits, "concurrencyLimits");
+        Objects.requireNonNull(httpClients, "httpClients");
+        if (latencyBudget != null && (latencyBudget.isNegative() || latencyBudget.isZero())) {
+            throw new IllegalArgumentException("latencyBudget must be positive: " + latencyBudget);
+        }
+        if (parallelConversionThreshold <= 0) {
+            throw new IllegalArgumentException("parallelConversionThreshold must be positive: " + parallelConversionThreshold);
+        }
+        if (hedging != null && fanOutMode != FanOutMode.STRUCTURED) {
+            throw new IllegalArgumentException("Hedging is only supported by the STRUCTURED fan-out, not " + fanOutMode);
+        }
+        if (retry != null && fanOutMode != FanOutMode.STRUCTURED) {
+            throw new IllegalArgumentException("Retries are only supported by the STRUCTURED fan-out, not " + fanOutMode);
+        }
+        if (circuitBreaker != null && fanOutMode != FanOutMode.STRUCTURED) {
+            throw new IllegalArgumentException("Circuit breakers are only supported by the STRUCTURED fan-out, not " + fanOutMode);
+        }
+    }
+
+    /**
+     * Returns the options matching the original behaviour: a structured fan-out, with no latency budget,
+     * hedging, concurrency limits, name deduplication, snapshots, parallel conversion, retries nor circuit breaker,
+     * with an HTTP client per solver, that fails if any API fails.
+     *
+     * @return The default options.
+     */
+    public static SolverOptions defaults() {
+        return new SolverOptions(FanOutMode.STRUCTURED, null, null, ConcurrencyLimits.unlimited(), false, null, SEQUENTIAL_CONVERSION,
+                HttpClientFactory.PER_FETCHER, null, null);
+    }
+
+    public SolverOptions withFanOutMode(FanOutMode fanOutMode) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    public SolverOptions withLatencyBudget(@Nullable Duration latencyBudget) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    public SolverOptions withHedging(@Nullable HedgingPolicy hedging) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    public SolverOptions withConcurrencyLimits(ConcurrencyLimits concurrencyLimits) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    public SolverOptions withNameDeduplication(boolean deduplicateNames) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    /**
+     * Returns these options falling back to the snapshots of the store. The snapshots are saved by the fetcher:
+     * the solvers built with an API timeout do it themselves, a custom fetcher should be a {@link info.jab.latency.api.GodApiClient}
+     * sharing the same store.
+     *
+     * @param staleIfError The snapshot store, or null to disable the fallback.
+     * @return The new options.
+     */
+    public SolverOptions withStaleIfError(@Nullable GodsSnapshotStore staleIfError) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    public SolverOptions withParallelConversion(int parallelConversionThreshold) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    public SolverOptions withHttpClients(HttpClientFactory httpClients) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    /**
+     * Returns these options retrying the transient failures of the API calls. With a latency budget, no retry waits
+     * past the deadline of the fan-out.
+     *
+     * @param retry The retry policy, or null to never retry.
+     * @return The new options.
+     */
+    public SolverOptions withRetry(@Nullable RetryPolicy retry) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+
+    /**
+     * Returns these options opening a circuit per API once too many of its calls fail. While a circuit is open,
+     * its API contributes its snapshot, if any, or else no names, without being called.
+     *
+     * @param circuitBreaker The circuit breaker policy, or null to always call the APIs.
+     * @return The new options.
+     */
+    public SolverOptions withCircuitBreaker(@Nullable CircuitBreakerPolicy circuitBreaker) {
+        return new SolverOptions(fanOutMode, latencyBudget, hedging, concurrencyLimits, deduplicateNames, staleIfError, parallelConversionThreshold,
+                httpClients, retry, circuitBreaker);
+    }
+}
@@ -0,0 +1,69 @@
+package info.jab.latency.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How {@link GodApiClient} derives the request timeout of each API from its recent latencies, instead of applying
+ * the same fixed timeout everywhere: the timeout is the given percentile of the latencies times the multiplier,
+ * clamped between the floor and the ceiling. An API that is normally fast then fails fast when it stalls.
+ *
+ * @param percentile The percentile of the recent latencies of the API, between 0 (exclusive) and 1 (inclusive),
+ *        e.g. 0.99 for p99.
+ * @param multiplier The factor applied to the percentile, at least 1.
+ * @param floor The shortest timeout, so that jitter on a very fast API does not cause spurious timeouts.
+ * @param ceiling The longest timeout.
+ * @param minSamples The number of latencies recorded for an API before its timeout adapts; until then the fixed
+ *        timeout of the client applies.
+ */
+public record AdaptiveTimeoutPolicy(double percentile, double multiplier, Duration floor, Duration ceiling, int minSamples) {
+
+    private static final double DEFAULT_PERCENTILE = 0.99;
+    private static final double DEFAULT_MULTIPLIER = 3.0;
+    private static final int DEFAULT_MIN_SAMPLES = 20;
+
+    /** How many recent latencies are kept per API to compute the percentile. */
+    static final int LATENCY_WINDOW_SIZE = 256;
+
+    public AdaptiveTimeoutPolicy {
+        Objects.requireNonNull(floor, "floor");
+        Objects.requireNonNull(ceiling, "ceiling");
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1]: " + percentile);
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be at least 1: " + multiplier);
+        }
+        if (floor.isNegative() || floor.isZero() || ceiling.compareTo(floor) < 0) {
+            throw new IllegalArgumentException("Expected 0 < floor <= ceiling, but got " + floor + " and " + ceiling);
+        }
+        if (minSamples <= 0) {
+            throw new IllegalArgumentException("minSamples must be positive: " + minSamples);
+        }
+    }
+
+    /**
+     * Returns a policy timing out at three times the p99 of an API, once 20 latencies have been recorded for it.
+     *
+     * @param floor The shortest timeout.
+     * @param ceiling The longest timeout.
+     * @return The adaptive timeout policy.
+     */
+    public static AdaptiveTimeoutPolicy p99TimesThree(Duration floor, Duration ceiling) {
+        return new AdaptiveTimeoutPolicy(DEFAULT_PERCENTILE, DEFAULT_MULTIPLIER, floor, ceiling, DEFAULT_MIN_SAMPLES);
+    }
+
+    /**
+     * Returns the timeout for an API whose latency at the percentile is the given one.
+     *
+     * @param observedLatency The latency of the API at the percentile.
+     * @return The timeout, between the floor and the ceiling.
+     */
+    public Duration timeoutFor(Duration observedLatency) {
+        Duration timeout = Duration.ofNanos((long) Math.min(observedLatency.toNanos() * multiplier, Long.MAX_VALUE));
+        if (timeout.compareTo(floor) < 0) {
+            return floor;
+        }
+        return timeout.compareTo(ceiling) > 0 ? ceiling : timeout;
+    }
+}
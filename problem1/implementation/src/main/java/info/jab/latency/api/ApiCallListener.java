@@ -0,0 +1,45 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Receives the outcome of every call made by {@link GodApiClient}, so that callers can bridge them
+ * to their own metrics registry. {@link EndpointMetrics} keeps them in per-endpoint histograms.
+ *
+ * <p>Callbacks run on the thread completing the call, possibly an HTTP client thread: they should be quick
+ * and must not throw. All methods do nothing by default.
+ */
+public interface ApiCallListener {
+
+    /** A listener ignoring every call. */
+    ApiCallListener NOOP = new ApiCallListener() {};
+
+    /**
+     * Called once the response of an API was received, and its body parsed for a 200.
+     *
+     * @param apiUrl The URL of the API.
+     * @param statusCode The HTTP status code of the response.
+     * @param payloadBytes The bytes of the response body read, compressed if it is; only counted for 200 responses, 0 otherwise.
+     * @param latency The time from sending the request to the end of the response.
+     * @param parseTime The time spent parsing the response body, 0 if it was not parsed.
+     */
+    default void onResponse(String apiUrl, int statusCode, long payloadBytes, Duration latency, Duration parseTime) {}
+
+    /**
+     * Called when a call to an API timed out.
+     *
+     * @param apiUrl The URL of the API.
+     * @param elapsed The time from sending the request to the timeout.
+     */
+    default void onTimeout(String apiUrl, Duration elapsed) {}
+
+    /**
+     * Called when a call to an API failed with an I/O error other than a timeout.
+     *
+     * @param apiUrl The URL of the API.
+     * @param exception The I/O error.
+     * @param elapsed The time from sending the request to the failure.
+     */
+    default void onFailure(String apiUrl, IOException exception, Duration elapsed) {}
+}
@@ -0,0 +1,34 @@
+package info.jab.latency.api;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Interface for fetching God entities from an API without blocking the calling thread.
+ */
+public interface AsyncGodsFetcher {
+
+    /**
+     * Fetches the God names accepted by the given filter asynchronously from the specified API URL.
+     * Cancelling the returned future cancels the underlying request where the implementation supports it.
+     *
+     * @param apiUrl The URL of the API to fetch gods from.
+     * @param filter The predicate that the God names must satisfy to be returned.
+     * @return A future completed with the God names accepted by the filter, in response order.
+     *         The future completes exceptionally with an {@link java.io.IOException} if an I/O error
+     *         or a timeout occurs when sending or receiving, or with an {@link UnusableResponseException}
+     *         if the API answers with an error status or an unparseable payload.
+     */
+    CompletableFuture<List<String>> fetchGodsAsync(String apiUrl, Predicate<String> filter);
+
+    /**
+     * Fetches all the God names asynchronously from the specified API URL.
+     *
+     * @param apiUrl The URL of the API to fetch gods from.
+     * @return A future completed with the God names, see {@link #fetchGodsAsync(String, Predicate)}.
+     */
+    default CompletableFuture<List<String>> fetchGodsAsync(String apiUrl) {
+        return fetchGodsAsync(apiUrl, name -> true);
+    }
+}
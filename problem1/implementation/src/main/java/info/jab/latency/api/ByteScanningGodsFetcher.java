@@ -0,0 +1,143 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An alternative to {@link GodApiClient} scanning the raw bytes of each response instead of running Jackson's parser.
+ * Given a {@link FirstLetterFilter}, as the solver's, most names are rejected from their first byte and never decoded.
+ *
+ * <p>Unlike {@link GodApiClient}, the whole response body is received before it is scanned, and there is neither
+ * response cache nor call listener. As with {@link GodApiClient}, an error status or a malformed payload fails the
+ * fetch with an {@link UnusableResponseException}. See {@code GodNamesParsingBenchmark} for how both parse paths compare.
+ */
+public class ByteScanningGodsFetcher implements GodsFetcher, AsyncGodsFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ByteScanningGodsFetcher.class);
+    private final HttpClient httpClient;
+    private final Duration timeoutDuration;
+
+    /**
+     * Constructs a ByteScanningGodsFetcher with a specified timeout for HTTP connections and requests.
+     *
+     * @param timeoutDuration The duration to use for connection and request timeouts.
+     */
+    public ByteScanningGodsFetcher(Duration timeoutDuration) {
+        this(timeoutDuration, HttpClientFactory.PER_FETCHER);
+    }
+
+    /**
+     * Constructs a ByteScanningGodsFetcher sending its requests with the client of the factory.
+     *
+     * @param timeoutDuration The duration to use for request timeouts, and for connection timeouts
+     *        unless the factory's client has its own.
+     * @param httpClients The factory of the HTTP client, e.g. a {@link SharedHttpClientFactory}.
+     */
+    public ByteScanningGodsFetcher(Duration timeoutDuration, HttpClientFactory httpClients) {
+        this.httpClient = httpClients.httpClient(timeoutDuration);
+        this.timeoutDuration = timeoutDuration;
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl) throws IOException, InterruptedException {
+        return fetchGods(apiUrl, name -> true);
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        try {
+            List<String> gods = godNames(apiUrl, httpClient.send(newRequest(apiUrl), godNamesHandler(apiUrl, filter)));
+            logger.info("Successfully fetched {} matching god names from API: {}", gods.size(), apiUrl);
+            return gods;
+        } catch (UnusableResponseException e) {
+            throw e; // Already logged
+        } catch (HttpTimeoutException e) {
+            logger.warn("Timeout occurred when calling API at {}: {}", apiUrl, e.getMessage());
+            throw e;
+        } catch (IOException e) {
+            logger.error("IOException when calling API at {}: {}", apiUrl, e.getMessage(), e);
+            throw e;
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted when calling API at {}: {}", apiUrl, e.getMessage());
+            Thread.currentThread().interrupt(); // Preserve interrupt status
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches the God names accepted by the filter with {@link HttpClient#sendAsync}.
+     * Cancelling the returned future cancels the HTTP exchange.
+     */
+    @Override
+    public CompletableFuture<List<String>> fetchGodsAsync(String apiUrl, Predicate<String> filter) {
+        CompletableFuture<HttpResponse<ScannedGods>> exchange = httpClient.sendAsync(newRequest(apiUrl), godNamesHandler(apiUrl, filter));
+        CompletableFuture<List<String>> result = exchange.thenApply(response -> {
+            try {
+                return godNames(apiUrl, response);
+            } catch (UnusableResponseException e) {
+                throw new CompletionException(e);
+            }
+        });
+        CompletableFuture<List<String>> unused = result.whenComplete((gods, throwable) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private HttpRequest newRequest(String apiUrl) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(apiUrl))
+                .timeout(timeoutDuration)
+                .GET()
+                .build();
+    }
+
+    // The body of an error status is discarded, and a malformed payload is scanned to its parsing error
+    private HttpResponse.BodyHandler<ScannedGods> godNamesHandler(String apiUrl, Predicate<String> filter) {
+        return responseInfo -> {
+            if (responseInfo.statusCode() != 200) {
+                logger.warn("Failed to fetch god names from API: {}. Status code: {}", apiUrl, responseInfo.statusCode());
+                return HttpResponse.BodySubscribers.replacing(new ScannedGods(List.of(), null));
+            }
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), body -> scan(apiUrl, body, filter));
+        };
+    }
+
+    private record ScannedGods(List<String> godNames, @Nullable IOException parsingError) {}
+
+    private static ScannedGods scan(String apiUrl, byte[] body, Predicate<String> filter) {
+        try {
+            return new ScannedGods(GodNamesScanner.scan(body, filter), null);
+        } catch (IOException e) {
+            logger.error("Error parsing JSON from API: {}", apiUrl, e);
+            return new ScannedGods(List.of(), e);
+        }
+    }
+
+    // The names of the response, unless it was an error status or a malformed payload, as GodApiClient does
+    private static List<String> godNames(String apiUrl, HttpResponse<ScannedGods> response) throws UnusableResponseException {
+        if (response.statusCode() != 200) {
+            throw new UnusableResponseException(apiUrl, response.statusCode());
+        }
+        IOException parsingError = response.body().parsingError();
+        if (parsingError != null) {
+            throw new UnusableResponseException(apiUrl, parsingError);
+        }
+        return response.body().godNames();
+    }
+}
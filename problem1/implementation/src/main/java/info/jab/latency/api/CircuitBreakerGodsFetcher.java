@@ -0,0 +1,212 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link GodsFetcher} decorator with a circuit breaker per API URL: once the share of failed calls to an API,
+ * timeouts included, reaches the threshold, the calls are rejected right away with a {@link CircuitOpenException}
+ * instead of each waiting for a timeout. After the open duration a single probe call is let through (half-open):
+ * its success closes the circuit, its failure opens it again.
+ *
+ * <p>Only I/O failures count: an interrupted call or a failing filter says nothing about the API.
+ * The circuits are lock-free, each state change being a compare-and-set of an immutable status.
+ */
+public class CircuitBreakerGodsFetcher implements GodsFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerGodsFetcher.class);
+
+    /** The state of the circuit of an API. */
+    public enum State {
+        /** The calls go through. */
+        CLOSED,
+        /** The calls are rejected. */
+        OPEN,
+        /** A probe call is in flight, the other calls are rejected. */
+        HALF_OPEN
+    }
+
+    /**
+     * The counters of the circuit of an API, since it was first called.
+     *
+     * @param state The current state of the circuit.
+     * @param calls The calls let through to the API.
+     * @param failures The calls that failed with an I/O error, timeouts included.
+     * @param timeouts The calls that timed out.
+     * @param rejectedCalls The calls rejected without calling the API.
+     */
+    public record Stats(State state, long calls, long failures, long timeouts, long rejectedCalls) {}
+
+    @FunctionalInterface
+    private interface Fetch {
+        List<String> fetch() throws IOException, InterruptedException;
+    }
+
+    // Immutable so that a transition is a single compare-and-set. The counts cover the current window while closed.
+    private record Status(State state, int windowCalls, int windowFailures, long openedAtNanos) {
+
+        static final Status CLOSED = new Status(State.CLOSED, 0, 0, 0);
+
+        static Status openedAt(long nanos) {
+            return new Status(State.OPEN, 0, 0, nanos);
+        }
+    }
+
+    private final GodsFetcher delegate;
+    private final CircuitBreakerPolicy policy;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a CircuitBreakerGodsFetcher guarding the calls of the delegate.
+     *
+     * @param delegate The fetcher that actually calls the APIs.
+     * @param policy When the circuits open, and for how long.
+     */
+    public CircuitBreakerGodsFetcher(GodsFetcher delegate, CircuitBreakerPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl) throws IOException, InterruptedException {
+        return call(apiUrl, () -> delegate.fetchGods(apiUrl));
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        return call(apiUrl, () -> delegate.fetchGods(apiUrl, filter));
+    }
+
+    /**
+     * Returns the counters of the circuit of an API.
+     *
+     * @param apiUrl The URL of the API.
+     * @return The counters, all zero with a closed circuit if the API was never called.
+     */
+    public Stats stats(String apiUrl) {
+        Circuit circuit = circuits.get(apiUrl);
+        if (circuit == null) {
+            return new Stats(State.CLOSED, 0, 0, 0, 0);
+        }
+        return new Stats(circuit.currentStatus().state(), circuit.calls.sum(), circuit.failures.sum(),
+                circuit.timeouts.sum(), circuit.rejectedCalls.sum());
+    }
+
+    private List<String> call(String apiUrl, Fetch fetch) throws IOException, InterruptedException {
+        Circuit circuit = circuits.computeIfAbsent(apiUrl, url -> new Circuit());
+        boolean probe = circuit.acquirePermission(apiUrl);
+        circuit.calls.increment();
+        try {
+            List<String> gods = fetch.fetch();
+            circuit.onSuccess(probe, apiUrl);
+            return gods;
+        } catch (IOException e) {
+            circuit.onFailure(probe, e instanceof HttpTimeoutException, apiUrl);
+            throw e;
+        } catch (InterruptedException | RuntimeException e) {
+            circuit.onAbandoned(probe);
+            throw e;
+        }
+    }
+
+    private final class Circuit {
+
+        private final AtomicReference<Status> status = new AtomicReference<>(Status.CLOSED);
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder rejectedCalls = new LongAdder();
+
+        // Never null, the reference starts closed
+        Status currentStatus() {
+            return Objects.requireNonNull(status.get());
+        }
+
+        /**
+         * Lets the call through or rejects it.
+         *
+         * @return true if the call is the probe of a half-open circuit.
+         */
+        boolean acquirePermission(String apiUrl) throws CircuitOpenException {
+            while (true) {
+                Status current = currentStatus();
+                if (current.state() == State.CLOSED) {
+                    return false;
+                }
+                if (current.state() == State.OPEN && System.nanoTime() - current.openedAtNanos() >= policy.openDuration().toNanos()) {
+                    if (status.compareAndSet(current, new Status(State.HALF_OPEN, 0, 0, current.openedAtNanos()))) {
+                        logger.info("Circuit of API {} half-open, probing it", apiUrl);
+                        return true;
+                    }
+                    continue; // Another caller changed the state first
+                }
+                rejectedCalls.increment();
+                throw new CircuitOpenException(apiUrl);
+            }
+        }
+
+        void onSuccess(boolean probe, String apiUrl) {
+            if (probe) {
+                status.set(Status.CLOSED);
+                logger.info("Circuit of API {} closed", apiUrl);
+            } else {
+                recordInWindow(false, apiUrl);
+            }
+        }
+
+        void onFailure(boolean probe, boolean timeout, String apiUrl) {
+            failures.increment();
+            if (timeout) {
+                timeouts.increment();
+            }
+            if (probe) {
+                status.set(Status.openedAt(System.nanoTime()));
+                logger.warn("Probe of API {} failed, circuit open again", apiUrl);
+            } else {
+                recordInWindow(true, apiUrl);
+            }
+        }
+
+        // The probe could not tell whether the API recovered: let the next call probe it
+        void onAbandoned(boolean probe) {
+            if (probe) {
+                status.set(Status.openedAt(System.nanoTime() - policy.openDuration().toNanos()));
+            }
+        }
+
+        private void recordInWindow(boolean failed, String apiUrl) {
+            while (true) {
+                Status current = currentStatus();
+                if (current.state() != State.CLOSED) {
+                    return; // Opened meanwhile, the outcome of a call sent before is not relevant anymore
+                }
+                int windowCalls = current.windowCalls() + 1;
+                int windowFailures = current.windowFailures() + (failed ? 1 : 0);
+                Status next;
+                if (windowFailures >= policy.failureRateThreshold() * policy.windowSize()) {
+                    next = Status.openedAt(System.nanoTime()); // The window cannot end below the threshold anymore
+                } else if (windowCalls >= policy.windowSize()) {
+                    next = Status.CLOSED;
+                } else {
+                    next = new Status(State.CLOSED, windowCalls, windowFailures, 0);
+                }
+                if (status.compareAndSet(current, next)) {
+                    if (next.state() == State.OPEN) {
+                        logger.warn("Circuit of API {} open after {} failures in {} calls", apiUrl, windowFailures, windowCalls);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package info.jab.latency.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * When {@link CircuitBreakerGodsFetcher} stops calling an API, and for how long.
+ *
+ * @param failureRateThreshold The share of failed calls, timeouts included, at which the circuit opens,
+ *        between 0 (exclusive) and 1 (inclusive).
+ * @param windowSize The number of calls over which the failure rate is computed; the counts restart after each window.
+ * @param openDuration How long an open circuit rejects the calls before a single probe call is let through.
+ */
+public record CircuitBreakerPolicy(double failureRateThreshold, int windowSize, Duration openDuration) {
+
+    public CircuitBreakerPolicy {
+        Objects.requireNonNull(openDuration, "openDuration");
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]: " + failureRateThreshold);
+        }
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+        }
+        if (openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("openDuration must be positive: " + openDuration);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link CircuitBreakerGodsFetcher} instead of calling an API whose circuit is open.
+ * An I/O failure as far as callers are concerned: the API is considered unavailable.
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String apiUrl) {
+        super("Circuit open, not calling API: " + apiUrl);
+    }
+}
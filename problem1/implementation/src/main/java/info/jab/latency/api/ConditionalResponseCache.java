@@ -0,0 +1,130 @@
+package info.jab.latency.api;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A bounded cache of parsed API responses with their validators (ETag and Last-Modified), used by
+ * {@link GodApiClient} to revalidate with conditional GETs. On a 304 Not Modified the cached God names
+ * are reused without downloading or parsing the body again.
+ *
+ * <p>Entries are keyed by API URL and filter instance, since the cached names are the ones accepted by the filter:
+ * callers reusing the same predicate instance share an entry. The cache is bounded by the total number of cached
+ * God names and evicts the least recently used entries first. Thread-safe.
+ */
+public final class ConditionalResponseCache {
+
+    private final long maxCachedNames;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedNames;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Constructs a cache holding at most the given number of God names across all its entries.
+     *
+     * @param maxCachedNames The maximum number of God names kept in the cache.
+     */
+    public ConditionalResponseCache(long maxCachedNames) {
+        if (maxCachedNames <= 0) {
+            throw new IllegalArgumentException("maxCachedNames must be positive: " + maxCachedNames);
+        }
+        this.maxCachedNames = maxCachedNames;
+    }
+
+    /**
+     * A cached response: the God names accepted by the filter and the validators to revalidate them.
+     *
+     * @param godNames The God names accepted by the filter.
+     * @param etag The ETag of the response, if any.
+     * @param lastModified The Last-Modified date of the response, if any.
+     */
+    record Entry(List<String> godNames, @Nullable String etag, @Nullable String lastModified) {
+
+        Entry {
+            godNames = List.copyOf(godNames);
+        }
+
+        // Counts the entry itself, so that empty lists still weigh something
+        long weight() {
+            return godNames.size() + 1L;
+        }
+    }
+
+    private record Key(String apiUrl, Predicate<String> filter) {}
+
+    /**
+     * A snapshot of the cache counters.
+     *
+     * @param hitCount The responses served from the cache after a 304 Not Modified.
+     * @param missCount The responses downloaded and parsed in full.
+     * @param evictionCount The entries evicted to keep the cache within its bound.
+     * @param entryCount The entries currently cached.
+     * @param cachedNames The God names currently cached.
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount, int entryCount, long cachedNames) {
+
+        /**
+         * Returns the share of responses served from the cache.
+         *
+         * @return The hit ratio, between 0 and 1; 0 if there were no requests.
+         */
+        public double hitRatio() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0.0 : (double) hitCount / requests;
+        }
+    }
+
+    synchronized Optional<Entry> get(String apiUrl, Predicate<String> filter) {
+        return Optional.ofNullable(entries.get(new Key(apiUrl, filter)));
+    }
+
+    /**
+     * Stores the parsed God names of a 200 response. Responses without validators cannot be revalidated
+     * and are not stored.
+     */
+    synchronized void put(String apiUrl, Predicate<String> filter, Entry entry) {
+        if (entry.etag() == null && entry.lastModified() == null) {
+            return;
+        }
+        Entry previous = entries.put(new Key(apiUrl, filter), entry);
+        if (previous != null) {
+            cachedNames -= previous.weight();
+        }
+        cachedNames += entry.weight();
+        evictEldestEntries();
+    }
+
+    synchronized void recordHit() {
+        hitCount++;
+    }
+
+    synchronized void recordMiss() {
+        missCount++;
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return The current counters.
+     */
+    public synchronized Stats stats() {
+        return new Stats(hitCount, missCount, evictionCount, entries.size(), cachedNames);
+    }
+
+    private void evictEldestEntries() {
+        Iterator<Map.Entry<Key, Entry>> eldestFirst = entries.entrySet().iterator();
+        while (cachedNames > maxCachedNames && eldestFirst.hasNext()) {
+            cachedNames -= eldestFirst.next().getValue().weight();
+            eldestFirst.remove();
+            evictionCount++;
+        }
+    }
+}
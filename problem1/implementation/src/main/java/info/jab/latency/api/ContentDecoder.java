@@ -0,0 +1,264 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Decodes a response body by its Content-Encoding, buffer by buffer as it arrives, so that a gzip or deflate payload
+ * is inflated straight into the JSON parser: neither the compressed nor the inflated body is ever held in memory.
+ * The inflated bytes are handed out in a single reused chunk, which the sink must consume before returning.
+ *
+ * <p>A gzip body has its header skipped and its CRC-32 and size checked against the trailer; data after the trailer,
+ * such as another gzip member, is ignored. A deflate body is zlib-wrapped, as HTTP specifies, but the raw deflate
+ * format some servers send instead is recognized from the first two bytes. Not thread-safe, one instance per response;
+ * {@link #close()} releases the native memory of the inflater.
+ */
+final class ContentDecoder implements AutoCloseable {
+
+    /** The Accept-Encoding request header value matching the decoded encodings. */
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_FHCRC = 2;
+    private static final int GZIP_FEXTRA = 4;
+    private static final int GZIP_FNAME = 8;
+    private static final int GZIP_FCOMMENT = 16;
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    /** Receives the decoded bytes. */
+    @FunctionalInterface
+    interface Sink {
+        void accept(ByteBuffer decoded) throws IOException;
+    }
+
+    private enum Format { IDENTITY, GZIP, DEFLATE }
+
+    private enum GzipHeader { FIXED, EXTRA_LENGTH, EXTRA, NAME, COMMENT, HEADER_CRC, DONE }
+
+    private final Format format;
+    private @Nullable Inflater inflater; // Created once the format of a deflate body is known
+    private final ByteBuffer deflateHeader = ByteBuffer.allocate(2); // Tells a zlib-wrapped deflate body from a raw one
+    private byte @Nullable [] chunk;
+    private long decodedBytes;
+
+    private GzipHeader gzipHeader = GzipHeader.FIXED;
+    private int gzipFlags;
+    private int headerBytes; // Read in the current part of the gzip header
+    private int extraRemaining;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer trailer = ByteBuffer.allocate(GZIP_TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private ContentDecoder(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Returns a decoder for the Content-Encoding of a response.
+     *
+     * @param contentEncoding The Content-Encoding header value, or null if absent.
+     * @return The decoder, passing the bytes through for the identity encoding.
+     * @throws IOException if the encoding is neither gzip nor deflate.
+     */
+    static ContentDecoder of(@Nullable String contentEncoding) throws IOException {
+        String encoding = contentEncoding == null ? "" : contentEncoding.strip().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "", "identity" -> new ContentDecoder(Format.IDENTITY);
+            case "gzip", "x-gzip" -> new ContentDecoder(Format.GZIP);
+            case "deflate" -> new ContentDecoder(Format.DEFLATE);
+            default -> throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        };
+    }
+
+    /**
+     * Decodes the next buffer of the body, consuming it entirely.
+     *
+     * @param input The bytes received.
+     * @param sink The receiver of the decoded bytes, called any number of times.
+     * @throws IOException if the body is not in its declared encoding.
+     */
+    void decode(ByteBuffer input, Sink sink) throws IOException {
+        switch (format) {
+            case IDENTITY -> {
+                decodedBytes += input.remaining();
+                sink.accept(input);
+            }
+            case GZIP -> {
+                while (gzipHeader != GzipHeader.DONE && input.hasRemaining()) {
+                    readGzipHeader(input.get() & 0xFF);
+                }
+                if (gzipHeader == GzipHeader.DONE) {
+                    inflate(input, sink, true);
+                }
+            }
+            case DEFLATE -> {
+                if (inflater == null) {
+                    // The two bytes are inflated as well, but may be split across buffers
+                    while (deflateHeader.hasRemaining() && input.hasRemaining()) {
+                        deflateHeader.put(input.get());
+                    }
+                    if (deflateHeader.hasRemaining()) {
+                        return;
+                    }
+                    deflateHeader.flip();
+                    inflater = new Inflater(!isZlibHeader(deflateHeader.get(0), deflateHeader.get(1)));
+                    inflate(deflateHeader, sink, false);
+                }
+                inflate(input, sink, false);
+            }
+        }
+    }
+
+    /**
+     * Checks that the whole body was received.
+     *
+     * @throws IOException if the compressed stream is truncated, or its gzip trailer does not match.
+     */
+    void finish() throws IOException {
+        if (format == Format.IDENTITY) {
+            return;
+        }
+        Inflater current = inflater;
+        if (current == null || !current.finished() || (format == Format.GZIP && trailer.hasRemaining())) {
+            throw new IOException("Truncated " + format.name().toLowerCase(Locale.ROOT) + " body");
+        }
+        if (format == Format.GZIP) {
+            trailer.flip();
+            if (trailer.getInt() != (int) crc.getValue() || trailer.getInt() != (int) decodedBytes) {
+                throw new IOException("Corrupted gzip body: CRC-32 or size mismatch");
+            }
+        }
+    }
+
+    /** Returns the bytes decoded so far, the body size as parsed. */
+    long decodedBytes() {
+        return decodedBytes;
+    }
+
+    @Override
+    public void close() {
+        Inflater current = inflater;
+        if (current != null) {
+            current.end();
+        }
+    }
+
+    private void inflate(ByteBuffer input, Sink sink, boolean gzip) throws IOException {
+        Inflater current = inflater;
+        if (current == null) {
+            return; // No byte of a deflate body yet
+        }
+        if (!current.finished()) {
+            byte[] output = chunk;
+            if (output == null) {
+                output = new byte[CHUNK_SIZE];
+                chunk = output;
+            }
+            current.setInput(input); // Advances the position of the input as it is inflated
+            try {
+                while (!current.finished()) {
+                    int inflated = current.inflate(output);
+                    if (inflated > 0) {
+                        if (gzip) {
+                            crc.update(output, 0, inflated);
+                        }
+                        decodedBytes += inflated;
+                        sink.accept(ByteBuffer.wrap(output, 0, inflated));
+                    } else if (current.needsInput()) {
+                        return;
+                    } else if (current.needsDictionary()) {
+                        throw new IOException("Deflate bodies with a preset dictionary are not supported");
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Malformed " + format.name().toLowerCase(Locale.ROOT) + " body", e);
+            }
+        }
+        if (gzip) {
+            while (trailer.hasRemaining() && input.hasRemaining()) {
+                trailer.put(input.get());
+            }
+        }
+        input.position(input.limit()); // Whatever follows the compressed stream is ignored
+    }
+
+    // One byte at a time: the header is a few bytes long, but may be split across buffers
+    private void readGzipHeader(int value) throws IOException {
+        switch (gzipHeader) {
+            case FIXED -> {
+                if ((headerBytes == 0 && value != (GZIP_MAGIC & 0xFF)) || (headerBytes == 1 && value != GZIP_MAGIC >>> 8)) {
+                    throw new IOException("Not a gzip body");
+                }
+                if (headerBytes == 2 && value != 8) {
+                    throw new IOException("Unsupported gzip compression method: " + value);
+                }
+                if (headerBytes == 3) {
+                    gzipFlags = value;
+                }
+                if (++headerBytes == GZIP_HEADER_SIZE) {
+                    nextGzipHeaderPart(GzipHeader.FIXED);
+                }
+            }
+            case EXTRA_LENGTH -> {
+                extraRemaining |= value << (8 * headerBytes);
+                if (++headerBytes == 2) {
+                    gzipHeader = GzipHeader.EXTRA;
+                    if (extraRemaining == 0) {
+                        nextGzipHeaderPart(GzipHeader.EXTRA);
+                    }
+                }
+            }
+            case EXTRA -> {
+                if (--extraRemaining == 0) {
+                    nextGzipHeaderPart(GzipHeader.EXTRA);
+                }
+            }
+            case NAME, COMMENT -> {
+                if (value == 0) {
+                    nextGzipHeaderPart(gzipHeader);
+                }
+            }
+            case HEADER_CRC -> {
+                if (++headerBytes == 2) {
+                    nextGzipHeaderPart(GzipHeader.HEADER_CRC);
+                }
+            }
+            case DONE -> throw new IllegalStateException("The gzip header was already read");
+        }
+    }
+
+    // The optional parts come in this order, each present if its flag is set
+    private void nextGzipHeaderPart(GzipHeader done) {
+        headerBytes = 0;
+        GzipHeader next = GzipHeader.DONE;
+        if (done.compareTo(GzipHeader.EXTRA_LENGTH) < 0 && (gzipFlags & GZIP_FEXTRA) != 0) {
+            next = GzipHeader.EXTRA_LENGTH;
+        } else if (done.compareTo(GzipHeader.NAME) < 0 && (gzipFlags & GZIP_FNAME) != 0) {
+            next = GzipHeader.NAME;
+        } else if (done.compareTo(GzipHeader.COMMENT) < 0 && (gzipFlags & GZIP_FCOMMENT) != 0) {
+            next = GzipHeader.COMMENT;
+        } else if (done.compareTo(GzipHeader.HEADER_CRC) < 0 && (gzipFlags & GZIP_FHCRC) != 0) {
+            next = GzipHeader.HEADER_CRC;
+        }
+        gzipHeader = next;
+        if (next == GzipHeader.DONE) {
+            inflater = new Inflater(true); // The deflate stream of a gzip member has no zlib wrapper
+        }
+    }
+
+    // A zlib stream starts with the deflate method and a window of at most 32 KiB, CMF 0x08 to 0x78 in steps of 0x10,
+    // and a FLG byte making CMF * 256 + FLG a multiple of 31 (RFC 1950): a raw stream rarely passes both checks
+    private static boolean isZlibHeader(byte cmf, byte flg) {
+        int header = ((cmf & 0xFF) << 8) | (flg & 0xFF);
+        return (cmf & 0x0F) == 8 && (cmf & 0xFF) >>> 4 <= 7 && header % 31 == 0;
+    }
+}
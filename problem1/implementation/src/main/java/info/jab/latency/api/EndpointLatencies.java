@@ -0,0 +1,86 @@
+package info.jab.latency.api;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the most recent latencies of each API URL in a fixed-size sliding window,
+ * so that percentiles follow the current behaviour of an endpoint rather than its whole history.
+ * Thread-safe.
+ */
+public final class EndpointLatencies {
+
+    private final int windowSize;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an EndpointLatencies keeping the given number of samples per API URL.
+     *
+     * @param windowSize The number of recent latencies kept per API URL.
+     */
+    public EndpointLatencies(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Records the latency of a call to the given API URL, evicting the oldest sample when the window is full.
+     *
+     * @param apiUrl The URL of the API that was called.
+     * @param latency The latency of the call.
+     */
+    public void record(String apiUrl, Duration latency) {
+        windows.computeIfAbsent(apiUrl, url -> new Window(windowSize)).add(latency.toNanos());
+    }
+
+    /**
+     * Returns the given percentile of the recent latencies of the API URL, with the nearest-rank method.
+     *
+     * @param apiUrl The URL of the API.
+     * @param percentile The percentile, between 0 (exclusive) and 1 (inclusive), e.g. 0.95 for p95.
+     * @param minSamples The number of samples needed for the percentile to be meaningful.
+     * @return The percentile, or empty if fewer than minSamples latencies were recorded for the API URL.
+     */
+    public Optional<Duration> percentile(String apiUrl, double percentile, int minSamples) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1]: " + percentile);
+        }
+        Window window = windows.get(apiUrl);
+        if (window == null) {
+            return Optional.empty();
+        }
+        long[] samples = window.snapshot();
+        if (samples.length == 0 || samples.length < minSamples) {
+            return Optional.empty();
+        }
+        Arrays.sort(samples);
+        int rank = (int) Math.ceil(percentile * samples.length);
+        return Optional.of(Duration.ofNanos(samples[Math.max(rank, 1) - 1]));
+    }
+
+    private static final class Window {
+
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        Window(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void add(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(samples, count);
+        }
+    }
+}
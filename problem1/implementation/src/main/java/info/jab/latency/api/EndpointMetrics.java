@@ -0,0 +1,131 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * An {@link ApiCallListener} keeping per-endpoint metrics: HdrHistograms of the latency and parse time
+ * in microseconds, the count of each status code, the payload bytes, the timeouts and the other failures.
+ * Timeouts and failures are recorded in the latency histogram too, so that its tail shows them.
+ *
+ * <p>The metrics are cumulative and kept for every API URL ever called, each histogram taking a few
+ * tens of kilobytes. Thread-safe.
+ */
+public final class EndpointMetrics implements ApiCallListener {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    // Auto-resizing histograms: no need to guess the highest latency upfront
+    private static final class Endpoint {
+        private final Histogram latencyMicros = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        private final Histogram parseTimeMicros = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private final LongAdder payloadBytes = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+    }
+
+    /**
+     * A copy of the metrics of one endpoint.
+     *
+     * @param latencyMicros The latency of every call, responses and failures alike, in microseconds.
+     * @param parseTimeMicros The parse time of the 200 responses, in microseconds.
+     * @param statusCodes The number of responses per HTTP status code.
+     * @param payloadBytes The bytes of the 200 response bodies.
+     * @param timeouts The calls that timed out.
+     * @param failures The calls that failed with another I/O error.
+     */
+    public record Snapshot(Histogram latencyMicros, Histogram parseTimeMicros, Map<Integer, Long> statusCodes,
+            long payloadBytes, long timeouts, long failures) {
+
+        /**
+         * Returns the latency below which the given percentage of the calls fall.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return The latency at the percentile, zero if no call was recorded.
+         */
+        public Duration latencyAtPercentile(double percentile) {
+            return Duration.ofNanos(latencyMicros.getValueAtPercentile(percentile) * 1_000);
+        }
+
+        /**
+         * Returns the number of calls recorded, whatever their outcome.
+         *
+         * @return The number of calls.
+         */
+        public long calls() {
+            return latencyMicros.getTotalCount();
+        }
+    }
+
+    @Override
+    public void onResponse(String apiUrl, int statusCode, long payloadBytes, Duration latency, Duration parseTime) {
+        Endpoint endpoint = endpoint(apiUrl);
+        endpoint.latencyMicros.recordValue(toMicros(latency));
+        endpoint.statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        if (statusCode == 200) {
+            endpoint.parseTimeMicros.recordValue(toMicros(parseTime));
+            endpoint.payloadBytes.add(payloadBytes);
+        }
+    }
+
+    @Override
+    public void onTimeout(String apiUrl, Duration elapsed) {
+        Endpoint endpoint = endpoint(apiUrl);
+        endpoint.latencyMicros.recordValue(toMicros(elapsed));
+        endpoint.timeouts.increment();
+    }
+
+    @Override
+    public void onFailure(String apiUrl, IOException exception, Duration elapsed) {
+        Endpoint endpoint = endpoint(apiUrl);
+        endpoint.latencyMicros.recordValue(toMicros(elapsed));
+        endpoint.failures.increment();
+    }
+
+    /**
+     * Returns the API URLs with recorded calls.
+     *
+     * @return The API URLs, in no particular order.
+     */
+    public Set<String> apiUrls() {
+        return Set.copyOf(endpoints.keySet());
+    }
+
+    /**
+     * Returns a copy of the metrics of an API URL.
+     *
+     * @param apiUrl The URL of the API.
+     * @return The metrics, or empty if no call to the API was recorded.
+     */
+    public Optional<Snapshot> snapshot(String apiUrl) {
+        Endpoint endpoint = endpoints.get(apiUrl);
+        if (endpoint == null) {
+            return Optional.empty();
+        }
+        Map<Integer, Long> statusCodes = new TreeMap<>();
+        endpoint.statusCodes.forEach((code, count) -> statusCodes.put(code, count.sum()));
+        return Optional.of(new Snapshot(endpoint.latencyMicros.copy(), endpoint.parseTimeMicros.copy(), Collections.unmodifiableMap(statusCodes),
+                endpoint.payloadBytes.sum(), endpoint.timeouts.sum(), endpoint.failures.sum()));
+    }
+
+    private Endpoint endpoint(String apiUrl) {
+        return endpoints.computeIfAbsent(apiUrl, url -> new Endpoint());
+    }
+
+    private static long toMicros(Duration duration) {
+        return Math.max(duration.toNanos() / 1_000, 0);
+    }
+}
@@ -0,0 +1,50 @@
+package info.jab.latency.api;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The deadline of the solve a fetch is part of, bound with a {@link ScopedValue} for the duration of the fan-out.
+ * The subtasks of a StructuredTaskScope opened within {@link #within} see it too, so that the fetchers, e.g. a
+ * {@link RetryingGodsFetcher}, can tell how much time is left without it being threaded through every call.
+ */
+//Using a preview feature, so we need to suppress the warning
+@SuppressWarnings("preview")
+public final class FetchDeadline {
+
+    private static final ScopedValue<Instant> DEADLINE = ScopedValue.newInstance();
+
+    /** An operation run within a deadline. */
+    @FunctionalInterface
+    public interface Operation<T> {
+        T call() throws InterruptedException;
+    }
+
+    private FetchDeadline() {}
+
+    /**
+     * Runs the operation with the deadline bound, for its thread and the subtasks of the scopes it opens.
+     *
+     * @param deadline When the solve gives up on the APIs that did not answer.
+     * @param operation The operation, typically the fan-out.
+     * @return The result of the operation.
+     * @throws InterruptedException if the operation was interrupted.
+     */
+    public static <T> T within(Instant deadline, Operation<T> operation) throws InterruptedException {
+        return ScopedValue.where(DEADLINE, deadline).call(operation::call);
+    }
+
+    /**
+     * Returns the time left until the deadline bound by the caller, if any.
+     *
+     * @return The remaining time, zero once the deadline passed, or empty outside of {@link #within}.
+     */
+    public static Optional<Duration> remaining() {
+        if (!DEADLINE.isBound()) {
+            return Optional.empty();
+        }
+        Duration remaining = Duration.between(Instant.now(), DEADLINE.get());
+        return Optional.of(remaining.isNegative() ? Duration.ZERO : remaining);
+    }
+}
@@ -0,0 +1,48 @@
+package info.jab.latency.api;
+
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Accepts the God names starting with a letter, in any case, comparing the first char of the name in lower case.
+ * Being a known predicate rather than an opaque lambda, it lets a fetcher such as {@link ByteScanningGodsFetcher}
+ * reject most names from their first byte, without decoding them.
+ *
+ * <p>As the original filter, it fails on an empty name.
+ */
+public final class FirstLetterFilter implements Predicate<String> {
+
+    private final char letter;
+
+    private FirstLetterFilter(char letter) {
+        this.letter = letter;
+    }
+
+    /**
+     * Returns a filter accepting the names starting with the letter.
+     *
+     * @param letter The first letter, in any case.
+     * @return The filter.
+     */
+    public static FirstLetterFilter of(char letter) {
+        return new FirstLetterFilter(firstLetterOf(String.valueOf(letter)));
+    }
+
+    /**
+     * Returns the accepted first letter.
+     *
+     * @return The letter, in lower case.
+     */
+    public char letter() {
+        return letter;
+    }
+
+    @Override
+    public boolean test(String godName) {
+        return firstLetterOf(godName) == letter;
+    }
+
+    private static char firstLetterOf(String godName) {
+        return godName.toLowerCase(Locale.ROOT).charAt(0);
+    }
+}
@@ -1,6 +1,7 @@
 package info.jab.latency.api;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -9,23 +10,36 @@ import java.net.http.HttpTimeoutException; // Import for specific timeout handli
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
 
 /**
- * Client for fetching God entities asynchronously from various APIs.
- * Implements the {@link GodsFetcher} interface.
+ * Client for fetching God entities from various APIs, synchronously or asynchronously.
+ * Implements the {@link GodsFetcher} and {@link AsyncGodsFetcher} interfaces.
+ * The responses may be gzip or deflate compressed: they are inflated while they are parsed.
+ * An error status or a malformed payload fails the fetch with an {@link UnusableResponseException}.
  */
-public class GodApiClient implements GodsFetcher {
+public class GodApiClient implements GodsFetcher, AsyncGodsFetcher {
 
     private static final Logger logger = LoggerFactory.getLogger(GodApiClient.class);
     private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
     private final Duration timeoutDuration;
+    private final @Nullable ConditionalResponseCache responseCache;
+    private final ApiCallListener listener;
+    private final @Nullable AdaptiveTimeoutPolicy adaptiveTimeouts;
+    private final @Nullable GodsSnapshotStore snapshotStore;
+    private final EndpointLatencies recentLatencies = new EndpointLatencies(AdaptiveTimeoutPolicy.LATENCY_WINDOW_SIZE);
 
     /**
      * Constructs a GodApiClient with a specified timeout for HTTP connections and requests.
@@ -33,43 +47,64 @@ public class GodApiClient implements GodsFetcher {
      * @param timeoutDuration The duration to use for connection and request timeouts.
      */
     public GodApiClient(Duration timeoutDuration) {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(timeoutDuration) // Connection timeout
-                .build();
-        this.objectMapper = new ObjectMapper();
+        this(timeoutDuration, GodApiClientOptions.defaults());
+    }
+
+    /**
+     * Constructs a GodApiClient with the given options.
+     *
+     * @param timeoutDuration The duration to use for connection timeouts, unless the options' client has its own,
+     *        and for request timeouts until enough latencies of an API were recorded with adaptive timeouts.
+     * @param options The response cache, listener, adaptive timeouts, snapshot store and HTTP client factory.
+     */
+    public GodApiClient(Duration timeoutDuration, GodApiClientOptions options) {
+        this.httpClient = options.httpClients().httpClient(timeoutDuration); // Connection timeout
+        this.jsonFactory = new JsonFactory();
         this.timeoutDuration = timeoutDuration;
+        this.responseCache = options.responseCache();
+        this.listener = options.listener();
+        this.adaptiveTimeouts = options.adaptiveTimeouts();
+        this.snapshotStore = options.snapshotStore();
     }
 
     @Override
     public List<String> fetchGods(String apiUrl) throws IOException, InterruptedException {
-        logger.debug("Attempting to fetch gods synchronously from API: {}", apiUrl);
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(apiUrl))
-                .timeout(this.timeoutDuration) // Request timeout
-                .GET()
-                .build();
+        return fetchGods(apiUrl, name -> true);
+    }
 
+    /**
+     * Fetches the God names accepted by the filter, parsing the response body as a stream of JSON tokens.
+     * Neither the response body nor the names rejected by the filter are ever held in memory.
+     */
+    @Override
+    public List<String> fetchGods(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        logger.debug("Attempting to fetch gods synchronously from API: {}", apiUrl);
+        Optional<ConditionalResponseCache.Entry> cached = cachedResponse(apiUrl, filter);
+        GodsFetchEvent event = new GodsFetchEvent();
+        event.begin();
+        Duration timeout = requestTimeout(apiUrl);
+        long start = System.nanoTime();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                try {
-                    List<String> gods = objectMapper.readValue(response.body(), new TypeReference<List<String>>() {});
-                    logger.info("Successfully fetched {} god names from API: {}", gods.size(), apiUrl);
-                    return gods;
-                } catch (IOException e) {
-                    logger.error("Error parsing JSON from API: {}. Response body: {}", apiUrl, response.body(), e);
-                    return Collections.emptyList(); // Return empty list on parsing error
-                }
-            } else {
-                logger.warn("Failed to fetch god names from API: {}. Status code: {}. Response body: {}", apiUrl, response.statusCode(), response.body());
-                return Collections.emptyList(); // Return empty list on non-200 status
-            }
+            AtomicReference<GodNamesBodySubscriber> parsing = new AtomicReference<>();
+            AtomicReference<UnusableResponseException> unusable = new AtomicReference<>();
+            HttpResponse<List<String>> response = httpClient.send(newRequest(apiUrl, timeout, cached),
+                    godNamesHandler(apiUrl, filter, cached, parsing, unusable));
+            reportResponse(apiUrl, response.statusCode(), parsing.get(), start);
+            commitFetchEvent(event, apiUrl, false, "RESPONSE", response.statusCode(), parsing.get(), response.body().size());
+            List<String> gods = godNames(apiUrl, response, parsing.get(), unusable.get());
+            logger.info("Successfully fetched {} matching god names from API: {}", gods.size(), apiUrl);
+            return gods;
+        } catch (UnusableResponseException e) {
+            throw e; // Already reported as a response
         } catch (HttpTimeoutException e) {
             logger.warn("Timeout occurred when calling API at {}: {}", apiUrl, e.getMessage());
+            reportTimeout(apiUrl, timeout, start);
+            commitFetchEvent(event, apiUrl, false, "TIMEOUT", 0, null, 0);
             throw e; // Rethrow to be handled by StructuredTaskScope or caller
         } catch (IOException e) {
             logger.error("IOException when calling API at {}: {}", apiUrl, e.getMessage(), e);
+            listener.onFailure(apiUrl, e, elapsedSince(start));
+            commitFetchEvent(event, apiUrl, false, "FAILURE", 0, null, 0);
             throw e; // Rethrow to be handled by StructuredTaskScope or caller
         } catch (InterruptedException e) {
             logger.warn("Interrupted when calling API at {}: {}", apiUrl, e.getMessage());
@@ -77,4 +112,192 @@ public class GodApiClient implements GodsFetcher {
             throw e; // Rethrow to be handled by StructuredTaskScope or caller
         }
     }
+
+    /**
+     * Fetches the God names accepted by the filter with {@link HttpClient#sendAsync}, parsing the response body
+     * as it arrives. Cancelling the returned future cancels the HTTP exchange.
+     */
+    @Override
+    public CompletableFuture<List<String>> fetchGodsAsync(String apiUrl, Predicate<String> filter) {
+        logger.debug("Attempting to fetch gods asynchronously from API: {}", apiUrl);
+        Optional<ConditionalResponseCache.Entry> cached = cachedResponse(apiUrl, filter);
+        GodsFetchEvent event = new GodsFetchEvent();
+        event.begin();
+        Duration timeout = requestTimeout(apiUrl);
+        long start = System.nanoTime();
+        AtomicReference<GodNamesBodySubscriber> parsing = new AtomicReference<>();
+        AtomicReference<UnusableResponseException> unusable = new AtomicReference<>();
+        CompletableFuture<HttpResponse<List<String>>> exchange = httpClient.sendAsync(newRequest(apiUrl, timeout, cached),
+                godNamesHandler(apiUrl, filter, cached, parsing, unusable));
+        CompletableFuture<List<String>> result = exchange.handle((response, throwable) -> {
+            if (throwable == null) {
+                reportResponse(apiUrl, response.statusCode(), parsing.get(), start);
+                commitFetchEvent(event, apiUrl, true, "RESPONSE", response.statusCode(), parsing.get(), response.body().size());
+                List<String> gods;
+                try {
+                    gods = godNames(apiUrl, response, parsing.get(), unusable.get());
+                } catch (UnusableResponseException e) {
+                    throw new CompletionException(e);
+                }
+                logger.info("Successfully fetched {} matching god names from API: {}", gods.size(), apiUrl);
+                return gods;
+            }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            if (cause instanceof HttpTimeoutException) {
+                logger.warn("Timeout occurred when calling API at {}: {}", apiUrl, cause.getMessage());
+                reportTimeout(apiUrl, timeout, start);
+                commitFetchEvent(event, apiUrl, true, "TIMEOUT", 0, null, 0);
+            } else if (cause instanceof IOException ioException) {
+                logger.error("IOException when calling API at {}: {}", apiUrl, cause.getMessage(), cause);
+                listener.onFailure(apiUrl, ioException, elapsedSince(start));
+                commitFetchEvent(event, apiUrl, true, "FAILURE", 0, null, 0);
+            }
+            throw new CompletionException(cause); // Propagate to be handled by the caller
+        });
+        CompletableFuture<List<String>> unused = result.whenComplete((gods, throwable) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private Optional<ConditionalResponseCache.Entry> cachedResponse(String apiUrl, Predicate<String> filter) {
+        return responseCache == null ? Optional.empty() : responseCache.get(apiUrl, filter);
+    }
+
+    private HttpRequest newRequest(String apiUrl, Duration timeout, Optional<ConditionalResponseCache.Entry> cached) {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(apiUrl))
+                .timeout(timeout) // Request timeout
+                .header("Accept-Encoding", ContentDecoder.ACCEPT_ENCODING) // The body subscriber inflates it while parsing
+                .GET();
+        cached.ifPresent(entry -> {
+            // Revalidate the cached response: a 304 means the cached names are still current
+            if (entry.etag() != null) {
+                request.header("If-None-Match", entry.etag());
+            }
+            if (entry.lastModified() != null) {
+                request.header("If-Modified-Since", entry.lastModified());
+            }
+        });
+        return request.build();
+    }
+
+    // The fixed timeout, or the adaptive one once enough latencies of the API were recorded
+    Duration requestTimeout(String apiUrl) {
+        AdaptiveTimeoutPolicy policy = adaptiveTimeouts;
+        if (policy == null) {
+            return timeoutDuration;
+        }
+        return recentLatencies.percentile(apiUrl, policy.percentile(), policy.minSamples())
+                .map(policy::timeoutFor)
+                .orElse(timeoutDuration);
+    }
+
+    // The error statuses and undecodable payloads are set aside in unusable, and their body is discarded
+    private HttpResponse.BodyHandler<List<String>> godNamesHandler(String apiUrl, Predicate<String> filter,
+            Optional<ConditionalResponseCache.Entry> cached, AtomicReference<GodNamesBodySubscriber> parsing,
+            AtomicReference<UnusableResponseException> unusable) {
+        return responseInfo -> {
+            ConditionalResponseCache cache = responseCache;
+            if (responseInfo.statusCode() == 304 && cache != null && cached.isPresent()) {
+                logger.debug("API {} answered 304 Not Modified, reusing the cached god names", apiUrl);
+                cache.recordHit();
+                return HttpResponse.BodySubscribers.replacing(cached.get().godNames());
+            }
+            if (responseInfo.statusCode() != 200) {
+                logger.warn("Failed to fetch god names from API: {}. Status code: {}", apiUrl, responseInfo.statusCode());
+                unusable.set(new UnusableResponseException(apiUrl, responseInfo.statusCode()));
+                return HttpResponse.BodySubscribers.replacing(Collections.emptyList());
+            }
+            Consumer<List<String>> cacheUpdate = gods -> {};
+            if (cache != null) {
+                cache.recordMiss();
+                String etag = responseInfo.headers().firstValue("ETag").orElse(null);
+                String lastModified = responseInfo.headers().firstValue("Last-Modified").orElse(null);
+                cacheUpdate = gods -> cache.put(apiUrl, filter, new ConditionalResponseCache.Entry(gods, etag, lastModified));
+            }
+            ContentDecoder decoder;
+            try {
+                decoder = ContentDecoder.of(responseInfo.headers().firstValue("Content-Encoding").orElse(null));
+            } catch (IOException e) {
+                logger.error("Cannot decode the god names from API: {}", apiUrl, e);
+                unusable.set(new UnusableResponseException(apiUrl, e)); // As any other parsing error
+                return HttpResponse.BodySubscribers.replacing(Collections.emptyList());
+            }
+            GodsSnapshotStore snapshots = snapshotStore;
+            GodNamesBodySubscriber subscriber;
+            try {
+                if (snapshots == null) {
+                    subscriber = new GodNamesBodySubscriber(jsonFactory, apiUrl, filter, cacheUpdate, decoder);
+                } else {
+                    // The snapshot records every name as it is parsed, so that it can serve any filter later on,
+                    // while only the matching names are kept; it is written once the payload is complete
+                    GodsSnapshotStore.Recorder snapshot = snapshots.recorder(apiUrl);
+                    subscriber = new GodNamesBodySubscriber(jsonFactory, apiUrl, filter,
+                            cacheUpdate.andThen(gods -> snapshot.commit()), snapshot::add, decoder);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            parsing.set(subscriber);
+            return subscriber;
+        };
+    }
+
+    // The names of the response, unless it was an error status or a malformed payload
+    private static List<String> godNames(String apiUrl, HttpResponse<List<String>> response, @Nullable GodNamesBodySubscriber parsed,
+            @Nullable UnusableResponseException unusable) throws UnusableResponseException {
+        if (unusable != null) {
+            throw unusable;
+        }
+        IOException parsingError = parsed == null ? null : parsed.parsingError();
+        if (parsingError != null) {
+            throw new UnusableResponseException(apiUrl, parsingError);
+        }
+        return response.body();
+    }
+
+    // Only the 200 responses have their body parsed, and counted
+    private void reportResponse(String apiUrl, int statusCode, @Nullable GodNamesBodySubscriber parsed, long start) {
+        Duration latency = elapsedSince(start);
+        if (adaptiveTimeouts != null) {
+            recentLatencies.record(apiUrl, latency);
+        }
+        if (parsed == null) {
+            listener.onResponse(apiUrl, statusCode, 0, latency, Duration.ZERO);
+        } else {
+            listener.onResponse(apiUrl, statusCode, parsed.payloadBytes(), latency, parsed.parseTime());
+        }
+    }
+
+    // A timeout is recorded as a censored latency at the timeout itself: the API took at least that long. Otherwise an API
+    // whose latency rose above its adapted timeout would never record a new latency, and would time out until a restart.
+    // Repeated timeouts raise the timeout by the multiplier of the policy each time, up to its ceiling.
+    private void reportTimeout(String apiUrl, Duration timeout, long start) {
+        if (adaptiveTimeouts != null) {
+            recentLatencies.record(apiUrl, timeout);
+        }
+        listener.onTimeout(apiUrl, elapsedSince(start));
+    }
+
+    // The fields are only filled in when the event is recorded, so that a disabled event costs next to nothing
+    private static void commitFetchEvent(GodsFetchEvent event, String apiUrl, boolean async, String outcome, int statusCode,
+            @Nullable GodNamesBodySubscriber parsed, int godNames) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.apiUrl = apiUrl;
+            event.async = async;
+            event.outcome = outcome;
+            event.statusCode = statusCode;
+            event.payloadBytes = parsed == null ? 0 : parsed.payloadBytes();
+            event.godNames = godNames;
+            event.commit();
+        }
+    }
+
+    private static Duration elapsedSince(long startNanos) {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
 }
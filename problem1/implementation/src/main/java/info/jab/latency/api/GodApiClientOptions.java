@@ -0,0 +1,58 @@
+package info.jab.latency.api;
+
+import java.util.Objects;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Options for {@link GodApiClient}.
+ * Start from {@link #defaults()} and override the options that matter with the {@code with*} methods.
+ *
+ * @param responseCache The cache of parsed responses, revalidated with conditional GETs, or null to always download
+ *        and parse the responses.
+ * @param listener The listener of the calls, e.g. an {@link EndpointMetrics}.
+ * @param adaptiveTimeouts How the request timeouts adapt to the recent latencies of each API, or null to always use
+ *        the fixed timeout.
+ * @param snapshotStore Where to save every complete 200 payload, for stale-if-error fallbacks, or null to save none.
+ *        With a store, all the names of a payload are kept until it is parsed, and only then filtered.
+ * @param httpClients The factory of the HTTP client, e.g. a {@link SharedHttpClientFactory} to share the connections
+ *        with other fetchers.
+ */
+public record GodApiClientOptions(@Nullable ConditionalResponseCache responseCache, ApiCallListener listener,
+        @Nullable AdaptiveTimeoutPolicy adaptiveTimeouts, @Nullable GodsSnapshotStore snapshotStore, HttpClientFactory httpClients) {
+
+    public GodApiClientOptions {
+        Objects.requireNonNull(listener, "listener");
+        Objects.requireNonNull(httpClients, "httpClients");
+    }
+
+    /**
+     * Returns the options matching the original behaviour: no response cache, listener, adaptive timeouts
+     * nor snapshots, with an HTTP client per fetcher.
+     *
+     * @return The default options.
+     */
+    public static GodApiClientOptions defaults() {
+        return new GodApiClientOptions(null, ApiCallListener.NOOP, null, null, HttpClientFactory.PER_FETCHER);
+    }
+
+    public GodApiClientOptions withResponseCache(@Nullable ConditionalResponseCache responseCache) {
+        return new GodApiClientOptions(responseCache, listener, adaptiveTimeouts, snapshotStore, httpClients);
+    }
+
+    public GodApiClientOptions withListener(ApiCallListener listener) {
+        return new GodApiClientOptions(responseCache, listener, adaptiveTimeouts, snapshotStore, httpClients);
+    }
+
+    public GodApiClientOptions withAdaptiveTimeouts(@Nullable AdaptiveTimeoutPolicy adaptiveTimeouts) {
+        return new GodApiClientOptions(responseCache, listener, adaptiveTimeouts, snapshotStore, httpClients);
+    }
+
+    public GodApiClientOptions withSnapshotStore(@Nullable GodsSnapshotStore snapshotStore) {
+        return new GodApiClientOptions(responseCache, listener, adaptiveTimeouts, snapshotStore, httpClients);
+    }
+
+    public GodApiClientOptions withHttpClients(HttpClientFactory httpClients) {
+        return new GodApiClientOptions(responseCache, listener, adaptiveTimeouts, snapshotStore, httpClients);
+    }
+}
@@ -0,0 +1,254 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+/**
+ * Parses a JSON array of God names from the response body as the bytes arrive, with Jackson's non-blocking parser,
+ * keeping only the names accepted by the filter. Neither the body nor the rejected names are ever held in memory,
+ * and no thread is blocked waiting for the body. A compressed body is inflated on the way, see {@link ContentDecoder}.
+ *
+ * <p>Null elements are skipped: a deliberate change from the data-bound List&lt;String&gt; it replaces, which kept
+ * them as null names for the filter to fail on. Other scalar elements are read as text.
+ * A malformed payload is logged and completes the body with an empty list, as any other parsing error:
+ * {@link #parsingError()} tells it apart from an empty array.
+ */
+final class GodNamesBodySubscriber implements HttpResponse.BodySubscriber<List<String>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(GodNamesBodySubscriber.class);
+
+    private final String apiUrl;
+    private final Predicate<String> filter;
+    private final Consumer<List<String>> onParsed;
+    private final Consumer<String> onName;
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final ContentDecoder decoder;
+    private final CompletableFuture<List<String>> body = new CompletableFuture<>();
+    private final List<String> gods = new ArrayList<>();
+    private final GodNamesParseEvent parseEvent = new GodNamesParseEvent();
+
+    private Flow.@Nullable Subscription subscription;
+    private boolean arrayStarted;
+    private boolean arrayEnded;
+    private long payloadBytes;
+    private long parseNanos;
+    private long parsedNames;
+    private @Nullable IOException parsingError;
+
+    GodNamesBodySubscriber(JsonFactory jsonFactory, String apiUrl, Predicate<String> filter) throws IOException {
+        this(jsonFactory, apiUrl, filter, gods -> {});
+    }
+
+    /**
+     * Constructs a subscriber that also hands the God names to onParsed when the whole payload was parsed,
+     * which never happens for a malformed payload.
+     */
+    GodNamesBodySubscriber(JsonFactory jsonFactory, String apiUrl, Predicate<String> filter, Consumer<List<String>> onParsed) throws IOException {
+        this(jsonFactory, apiUrl, filter, onParsed, ContentDecoder.of(null));
+    }
+
+    /**
+     * Constructs a subscriber decoding the body, e.g. inflating a gzip one, before parsing it.
+     */
+    GodNamesBodySubscriber(JsonFactory jsonFactory, String apiUrl, Predicate<String> filter, Consumer<List<String>> onParsed,
+            ContentDecoder decoder) throws IOException {
+        this(jsonFactory, apiUrl, filter, onParsed, name -> {}, decoder);
+    }
+
+    /**
+     * Constructs a subscriber also handing every God name to onName as it is parsed, before the filter,
+     * e.g. to snapshot the whole payload without keeping the names rejected by the filter.
+     */
+    GodNamesBodySubscriber(JsonFactory jsonFactory, String apiUrl, Predicate<String> filter, Consumer<List<String>> onParsed,
+            Consumer<String> onName, ContentDecoder decoder) throws IOException {
+        this.apiUrl = apiUrl;
+        this.decoder = decoder;
+        this.filter = filter;
+        this.onParsed = onParsed;
+        this.onName = onName;
+        this.parser = jsonFactory.createNonBlockingByteBufferParser();
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    @Override
+    public CompletionStage<List<String>> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        parseEvent.begin();
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        for (ByteBuffer buffer : buffers) {
+            payloadBytes += buffer.remaining();
+        }
+        if (body.isDone()) {
+            // After a parsing error the rest of the body is drained, cancelling would fail the whole exchange
+            Objects.requireNonNull(subscription).request(1);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // Whatever follows the array is drained but ignored, as data binding does. It is still decoded,
+            // as the end of a compressed body checks the whole of it.
+            for (ByteBuffer buffer : buffers) {
+                decoder.decode(buffer, this::parse);
+            }
+            parseNanos += System.nanoTime() - start;
+            Objects.requireNonNull(subscription).request(1);
+        } catch (IOException e) {
+            completeWithParsingError(e);
+            Objects.requireNonNull(subscription).request(1);
+        } catch (RuntimeException e) {
+            // The filter failed, fail the body as the caller would have failed filtering the list
+            Objects.requireNonNull(subscription).cancel();
+            onError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeParser();
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (body.isDone()) {
+            return;
+        }
+        try {
+            decoder.finish();
+            if (!arrayEnded) {
+                long start = System.nanoTime();
+                feeder.endOfInput();
+                parseAvailableTokens();
+                parseNanos += System.nanoTime() - start;
+            }
+            if (!arrayEnded) {
+                throw new JsonParseException(parser, "Unexpected end of the JSON array of god names");
+            }
+            closeParser();
+            List<String> parsedGods = Collections.unmodifiableList(gods);
+            commitParseEvent(false);
+            onParsed.accept(parsedGods);
+            body.complete(parsedGods);
+        } catch (IOException e) {
+            completeWithParsingError(e);
+        } catch (RuntimeException e) {
+            onError(e);
+        }
+    }
+
+    /**
+     * Returns the bytes of the response body received so far, parsed or drained, compressed if the body is.
+     * Read it once the body completed.
+     */
+    long payloadBytes() {
+        return payloadBytes;
+    }
+
+    /** Returns why the payload could not be parsed, or null if it was. Read it once the body completed. */
+    @Nullable IOException parsingError() {
+        return parsingError;
+    }
+
+    /** Returns the bytes of the response body once decoded, the payload bytes unless it is compressed. */
+    long decodedBytes() {
+        return decoder.decodedBytes();
+    }
+
+    private void parse(ByteBuffer decoded) throws IOException {
+        if (!arrayEnded) {
+            feeder.feedInput(decoded);
+            parseAvailableTokens();
+        }
+    }
+
+    /** Returns the time spent parsing so far, filter included. Read it once the body completed. */
+    Duration parseTime() {
+        return Duration.ofNanos(parseNanos);
+    }
+
+    private void parseAvailableTokens() throws IOException {
+        JsonToken token;
+        while (!arrayEnded && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (!arrayStarted) {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "Expected a JSON array of god names");
+                }
+                arrayStarted = true;
+            } else if (token == JsonToken.END_ARRAY) {
+                arrayEnded = true;
+            } else if (token != JsonToken.VALUE_NULL) {
+                if (!token.isScalarValue()) {
+                    throw new JsonParseException(parser, "Expected a god name but found " + token);
+                }
+                String god = parser.getText();
+                parsedNames++;
+                onName.accept(god);
+                if (filter.test(god)) {
+                    gods.add(god);
+                }
+            }
+        }
+    }
+
+    private void completeWithParsingError(IOException e) {
+        logger.error("Error parsing JSON from API: {}", apiUrl, e);
+        parsingError = e;
+        commitParseEvent(true);
+        closeParser();
+        body.complete(List.of()); // Return empty list on parsing error
+    }
+
+    private void commitParseEvent(boolean malformed) {
+        parseEvent.end();
+        if (parseEvent.shouldCommit()) {
+            parseEvent.apiUrl = apiUrl;
+            parseEvent.payloadBytes = payloadBytes;
+            parseEvent.decodedBytes = decoder.decodedBytes();
+            parseEvent.parseTime = parseNanos;
+            parseEvent.parsedNames = parsedNames;
+            parseEvent.acceptedNames = gods.size();
+            parseEvent.malformed = malformed;
+            parseEvent.commit();
+        }
+    }
+
+    private void closeParser() {
+        decoder.close();
+        try {
+            parser.close();
+        } catch (IOException e) {
+            logger.debug("Error closing the JSON parser for API: {}", apiUrl, e);
+        }
+    }
+}
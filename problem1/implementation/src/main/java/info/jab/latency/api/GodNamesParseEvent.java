@@ -0,0 +1,53 @@
+package info.jab.latency.api;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The streaming parse of a 200 response body, filter included. The event lasts from the subscription to the end of the
+ * body, waits for the network included; the parse time is the part actually spent parsing and filtering.
+ */
+@Name(GodNamesParseEvent.NAME)
+@Label("God Names Parse")
+@Category({"Latency Problem", "API"})
+@Description("The streaming parse and filter of a response body")
+@Enabled(false)
+@StackTrace(false)
+final class GodNamesParseEvent extends Event {
+
+    static final String NAME = "info.jab.latency.GodNamesParse";
+
+    @Label("API URL")
+    String apiUrl = "";
+
+    @Label("Payload")
+    @Description("The bytes received, compressed if the body is")
+    @DataAmount
+    long payloadBytes;
+
+    @Label("Decoded Payload")
+    @Description("The bytes parsed, once the body is inflated")
+    @DataAmount
+    long decodedBytes;
+
+    @Label("Parse Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long parseTime;
+
+    @Label("Parsed Names")
+    long parsedNames;
+
+    @Label("Accepted Names")
+    @Description("The parsed names that passed the filter")
+    long acceptedNames;
+
+    @Label("Malformed")
+    boolean malformed;
+}
@@ -0,0 +1,260 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Reads the God names accepted by a filter from the raw bytes of a JSON array, as {@link GodNamesBodySubscriber} does
+ * but without a JSON parser. With a {@link FirstLetterFilter} on an ASCII letter, the first code point of each name is
+ * read from its UTF-8 bytes and lower-cased: a name starting with another letter is skipped without being decoded,
+ * so no String is allocated for it. Only the names starting with an escape are decoded before being tested.
+ *
+ * <p>Null elements are skipped and other scalar elements are read as text, whatever follows the array is ignored.
+ */
+final class GodNamesScanner {
+
+    private static final char NO_PREFILTER = 0;
+
+    private final byte[] body;
+    private final Predicate<String> filter;
+    private final char prefilterLetter;
+    private final List<String> gods = new ArrayList<>();
+    private int position;
+
+    private GodNamesScanner(byte[] body, Predicate<String> filter) {
+        this.body = body;
+        this.filter = filter;
+        this.prefilterLetter = filter instanceof FirstLetterFilter firstLetter && firstLetter.letter() < 0x80
+                ? firstLetter.letter()
+                : NO_PREFILTER;
+    }
+
+    /**
+     * Scans a JSON array of God names.
+     *
+     * @param body The bytes of the response body, in UTF-8.
+     * @param filter The filter of the names.
+     * @return The accepted names, in payload order.
+     * @throws IOException if the body is not a JSON array of scalars.
+     */
+    static List<String> scan(byte[] body, Predicate<String> filter) throws IOException {
+        return new GodNamesScanner(body, filter).scanArray();
+    }
+
+    private List<String> scanArray() throws IOException {
+        skipWhitespace();
+        expect('[');
+        skipWhitespace();
+        if (peek() == ']') {
+            return gods;
+        }
+        while (true) {
+            skipWhitespace();
+            scanElement();
+            skipWhitespace();
+            byte separator = next();
+            if (separator == ']') {
+                return gods;
+            }
+            if (separator != ',') {
+                throw malformed("Expected ',' or ']'");
+            }
+        }
+    }
+
+    private void scanElement() throws IOException {
+        byte first = peek();
+        switch (first) {
+            case '"' -> scanString();
+            case 'n' -> expectLiteral("null");
+            case 't' -> accept(expectLiteral("true"));
+            case 'f' -> accept(expectLiteral("false"));
+            case '[', '{' -> throw malformed("Expected a god name but found a nested " + (first == '[' ? "array" : "object"));
+            default -> {
+                if (first == '-' || (first >= '0' && first <= '9')) {
+                    accept(scanNumber());
+                } else {
+                    throw malformed("Unexpected character");
+                }
+            }
+        }
+    }
+
+    private void scanString() throws IOException {
+        position++; // Opening quote
+        byte first = peek();
+        if (prefilterLetter != NO_PREFILTER && first != '"' && first != '\\') {
+            int firstCodePoint = first >= 0 ? first : codePointAt(position);
+            // Lower-casing a whole name only changes its first char as lower-casing that code point alone does
+            if (firstCodePoint >= 0 && Character.toLowerCase(firstCodePoint) != prefilterLetter) {
+                skipString();
+                return;
+            }
+            if (first >= 0) {
+                gods.add(decodeString()); // Accepted from its first byte, as the filter would
+                return;
+            }
+        }
+        accept(decodeString());
+    }
+
+    private void accept(String godName) {
+        if (filter.test(godName)) {
+            gods.add(godName);
+        }
+    }
+
+    // Allocation-free: only looks for the closing quote
+    private void skipString() throws IOException {
+        while (true) {
+            byte current = next();
+            if (current == '"') {
+                return;
+            }
+            if (current == '\\') {
+                position++;
+            } else if (current >= 0 && current < 0x20) {
+                throw malformed("Unescaped control character in a string");
+            }
+        }
+    }
+
+    private String decodeString() throws IOException {
+        int start = position;
+        StringBuilder unescaped = null;
+        int runStart = start;
+        while (true) {
+            byte current = next();
+            if (current == '"') {
+                if (unescaped == null) {
+                    return new String(body, start, position - 1 - start, StandardCharsets.UTF_8);
+                }
+                unescaped.append(new String(body, runStart, position - 1 - runStart, StandardCharsets.UTF_8));
+                return unescaped.toString();
+            }
+            if (current == '\\') {
+                if (unescaped == null) {
+                    unescaped = new StringBuilder();
+                }
+                unescaped.append(new String(body, runStart, position - 1 - runStart, StandardCharsets.UTF_8));
+                unescaped.append(unescape(next()));
+                runStart = position;
+            } else if (current >= 0 && current < 0x20) {
+                throw malformed("Unescaped control character in a string");
+            }
+        }
+    }
+
+    private char unescape(byte escaped) throws IOException {
+        return switch (escaped) {
+            case '"' -> '"';
+            case '\\' -> '\\';
+            case '/' -> '/';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) {
+                        throw malformed("Invalid unicode escape");
+                    }
+                    code = code * 16 + digit;
+                }
+                yield (char) code; // A surrogate pair comes as two escapes, appended one after the other
+            }
+            default -> throw malformed("Invalid escape");
+        };
+    }
+
+    // The number as written, as Jackson's getText() returns it
+    private String scanNumber() throws IOException {
+        int start = position;
+        while (position < body.length && isNumberByte(body[position])) {
+            position++;
+        }
+        return new String(body, start, position - start, StandardCharsets.US_ASCII);
+    }
+
+    private String expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw malformed("Expected " + literal);
+            }
+        }
+        return literal;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (next() != expected) {
+            throw malformed("Expected '" + expected + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < body.length && isWhitespace(body[position])) {
+            position++;
+        }
+    }
+
+    private byte peek() throws IOException {
+        if (position >= body.length) {
+            throw malformed("Unexpected end of the JSON array of god names");
+        }
+        return body[position];
+    }
+
+    private byte next() throws IOException {
+        byte current = peek();
+        position++;
+        return current;
+    }
+
+    private IOException malformed(String message) {
+        return new IOException(message + " at byte " + position);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static boolean isNumberByte(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E';
+    }
+
+    // Decodes the multi-byte UTF-8 sequence at the index, or returns -1 if it is malformed
+    private int codePointAt(int index) {
+        int lead = body[index] & 0xFF;
+        int length;
+        int codePoint;
+        if ((lead & 0xE0) == 0xC0) {
+            length = 2;
+            codePoint = lead & 0x1F;
+        } else if ((lead & 0xF0) == 0xE0) {
+            length = 3;
+            codePoint = lead & 0x0F;
+        } else if ((lead & 0xF8) == 0xF0) {
+            length = 4;
+            codePoint = lead & 0x07;
+        } else {
+            return -1;
+        }
+        if (index + length > body.length) {
+            return -1;
+        }
+        for (int i = 1; i < length; i++) {
+            int continuation = body[index + i] & 0xFF;
+            if ((continuation & 0xC0) != 0x80) {
+                return -1;
+            }
+            codePoint = (codePoint << 6) | (continuation & 0x3F);
+        }
+        return codePoint;
+    }
+}
@@ -0,0 +1,47 @@
+package info.jab.latency.api;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call to a God API, from the request to the parsed response. Disabled unless a recording enables it,
+ * e.g. with the {@code jfr/latency-problem.jfc} settings.
+ */
+@Name(GodsFetchEvent.NAME)
+@Label("Gods Fetch")
+@Category({"Latency Problem", "API"})
+@Description("A call to a God API, from the request to the parsed response")
+@Enabled(false)
+@StackTrace(false)
+final class GodsFetchEvent extends Event {
+
+    static final String NAME = "info.jab.latency.GodsFetch";
+
+    @Label("API URL")
+    String apiUrl = "";
+
+    @Label("Asynchronous")
+    boolean async;
+
+    @Label("Outcome")
+    @Description("RESPONSE, TIMEOUT or FAILURE")
+    String outcome = "";
+
+    @Label("Status Code")
+    @Description("The HTTP status code, 0 without response")
+    int statusCode;
+
+    @Label("Payload")
+    @DataAmount
+    long payloadBytes;
+
+    @Label("God Names")
+    @Description("The God names accepted by the filter")
+    int godNames;
+}
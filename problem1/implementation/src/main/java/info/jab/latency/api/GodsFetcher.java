@@ -2,6 +2,7 @@ package info.jab.latency.api;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Interface for fetching God entities from an API.
@@ -12,11 +13,28 @@ public interface GodsFetcher {
      * Fetches a list of God names synchronously from the specified API URL.
      *
      * @param apiUrl The URL of the API to fetch gods from.
-     * @return A list of God names.
-     *         The list will be empty if an error occurs (e.g., network issue, timeout, parsing error)
-     *         or no gods are found.
-     * @throws IOException If an I/O error occurs when sending or receiving.
+     * @return A list of God names, empty if no gods are found.
+     * @throws IOException If an I/O error occurs when sending or receiving, or the API answered with an error
+     *         status or a malformed payload, see {@link UnusableResponseException}.
      * @throws InterruptedException If the operation is interrupted.
      */
     List<String> fetchGods(String apiUrl) throws IOException, InterruptedException;
+
+    /**
+     * Fetches the God names accepted by the given filter synchronously from the specified API URL.
+     * Implementations should override it to apply the filter while the response is parsed,
+     * so that the rejected names and the full list are never held in memory.
+     *
+     * @param apiUrl The URL of the API to fetch gods from.
+     * @param filter The predicate that the God names must satisfy to be returned.
+     * @return A list of the God names accepted by the filter, in response order, empty if no gods match.
+     * @throws IOException If an I/O error occurs when sending or receiving, or the API answered with an error
+     *         status or a malformed payload, see {@link UnusableResponseException}.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    default List<String> fetchGods(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        return fetchGods(apiUrl).stream()
+                .filter(filter)
+                .toList();
+    }
 }
@@ -0,0 +1,332 @@
+package info.jab.latency.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the last good payload of each API, every God name of it, so that a failing or slow API can still
+ * contribute its last known names, flagged as stale. The snapshots live on disk, so a new process can serve
+ * them before any API answered.
+ *
+ * <p>Each API has its own file, named after a hash of its URL, in a compact binary format: a header with the URL
+ * and the save time, then each name as a varint length and its UTF-8 bytes. The files are replaced atomically
+ * and read through a memory map, which is all the store keeps of them: the names are decoded from the mapped file
+ * on each {@link #load}, which only happens when an API failed, and are never held on the heap in between.
+ * Saving is best effort: an I/O error is logged, never thrown. Thread-safe.
+ */
+public final class GodsSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(GodsSnapshotStore.class);
+
+    private static final int MAGIC = 0x474F4453; // "GODS"
+    private static final byte VERSION = 1;
+    private static final String EXTENSION = ".gods";
+
+    private final Path directory;
+    private final Map<String, MappedFile> mapped = new ConcurrentHashMap<>();
+    // The payloads recorded by a fetch and not written yet, encoded; load() serves them meanwhile
+    private final Map<String, EncodedPayload> pending = new ConcurrentHashMap<>();
+
+    /**
+     * A snapshot of the payload of an API.
+     *
+     * @param godNames Every God name of the payload, unfiltered, in payload order.
+     * @param savedAt When the payload was received.
+     */
+    public record Snapshot(List<String> godNames, Instant savedAt) {
+
+        public Snapshot {
+            godNames = List.copyOf(godNames);
+        }
+    }
+
+    // The names of a payload as they are laid out after the URL in a file: their count, then each name
+    private record EncodedPayload(ByteBuffer names, Instant savedAt) {}
+
+    // A file mapped as it was when its version, its inode or else its modification time, was read
+    private record MappedFile(MappedByteBuffer buffer, Object version) {}
+
+    /**
+     * Records the names of a payload as they are parsed, already encoded, so that the payload is never held as
+     * a list of strings; {@link #commit()} writes it in the background. Not thread-safe, as a parse is sequential.
+     */
+    final class Recorder {
+
+        private final String apiUrl;
+        private final ByteArrayOutputStream names = new ByteArrayOutputStream();
+        private int count;
+
+        private Recorder(String apiUrl) {
+            this.apiUrl = apiUrl;
+        }
+
+        void add(String godName) {
+            writeString(names, godName);
+            count++;
+        }
+
+        // Called once the whole payload was parsed: the caller's thread, e.g. the HTTP client's, never waits for the disk
+        void commit() {
+            saveInBackground(apiUrl, encoded());
+        }
+
+        private EncodedPayload encoded() {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(names.size() + 5);
+            writeVarint(payload, count);
+            payload.writeBytes(names.toByteArray());
+            return new EncodedPayload(ByteBuffer.wrap(payload.toByteArray()), Instant.now());
+        }
+    }
+
+    /**
+     * Constructs a store keeping its snapshots in the directory, which is created if missing.
+     * Snapshots left there by a previous process are served as well.
+     *
+     * @param directory The directory of the snapshot files.
+     * @throws IOException if the directory cannot be created.
+     */
+    public GodsSnapshotStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Saves the payload of an API on the caller's thread, unless it is the one already saved.
+     *
+     * @param apiUrl The URL of the API.
+     * @param godNames Every God name of the payload.
+     */
+    public void save(String apiUrl, List<String> godNames) {
+        Recorder recorder = recorder(apiUrl);
+        godNames.forEach(recorder::add);
+        write(apiUrl, recorder.encoded());
+    }
+
+    /**
+     * Returns the last saved payload of an API, from this process or a previous one.
+     *
+     * @param apiUrl The URL of the API.
+     * @return The snapshot, or empty if none was saved or its file is unreadable.
+     */
+    public Optional<Snapshot> load(String apiUrl) {
+        EncodedPayload payload = pending.get(apiUrl);
+        if (payload != null) {
+            return Optional.of(new Snapshot(decodeNames(payload.names().duplicate()), payload.savedAt()));
+        }
+        Path file = fileOf(apiUrl);
+        try {
+            ByteBuffer buffer = mapped(apiUrl, file);
+            return buffer == null ? Optional.empty() : decode(apiUrl, buffer);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Cannot read the snapshot of API {} from {}: {}", apiUrl, file, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    Recorder recorder(String apiUrl) {
+        return new Recorder(apiUrl);
+    }
+
+    /** Waits until the payloads recorded so far are written, e.g. before another store reads the directory. */
+    void awaitPendingSaves() throws InterruptedException {
+        while (!pending.isEmpty()) {
+            Thread.sleep(1);
+        }
+    }
+
+    // The latest payload of an API replaces the one still waiting, and a single writer per API drains them
+    private void saveInBackground(String apiUrl, EncodedPayload payload) {
+        if (pending.put(apiUrl, payload) == null) {
+            Thread.ofVirtual().name("snapshot-writer").start(() -> {
+                EncodedPayload next = payload;
+                while (true) {
+                    write(apiUrl, next);
+                    // Fails if a newer payload came meanwhile, which this writer writes next: the API has no other writer
+                    if (pending.remove(apiUrl, next)) {
+                        return;
+                    }
+                    EncodedPayload newer = pending.get(apiUrl);
+                    if (newer == null) {
+                        return;
+                    }
+                    next = newer;
+                }
+            });
+        }
+    }
+
+    private void write(String apiUrl, EncodedPayload payload) {
+        Path file = fileOf(apiUrl);
+        try {
+            if (isSaved(apiUrl, file, payload)) {
+                return; // Unchanged payload, keep the disk out of the way
+            }
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporary, encode(apiUrl, payload));
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Cannot save the snapshot of API {} to {}: {}", apiUrl, file, e.toString());
+        }
+    }
+
+    // Compares the encoded names with the ones of the file, through its map rather than decoding them
+    private boolean isSaved(String apiUrl, Path file, EncodedPayload payload) throws IOException {
+        ByteBuffer names = mapped(apiUrl, file);
+        if (names == null) {
+            return false;
+        }
+        try {
+            if (!skipHeader(apiUrl, names)) {
+                return false;
+            }
+            return names.equals(payload.names());
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return false; // Truncated or corrupted file, replace it
+        }
+    }
+
+    // A view of the mapped file, mapped again once the file was replaced, e.g. by another process
+    private @Nullable ByteBuffer mapped(String apiUrl, Path file) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        Object fileKey = attributes.fileKey();
+        Object version = fileKey != null ? fileKey : attributes.lastModifiedTime();
+        MappedFile current = mapped.get(apiUrl);
+        if (current == null || !current.version().equals(version)) {
+            // The map stays valid once the channel is closed, and even once the file is replaced
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                current = new MappedFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), version);
+            }
+            mapped.put(apiUrl, current);
+        }
+        return current.buffer().duplicate();
+    }
+
+    private Path fileOf(String apiUrl) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(apiUrl.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    private static byte[] encode(String apiUrl, EncodedPayload payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + 1 + Long.BYTES);
+        header.putInt(MAGIC).put(VERSION).putLong(payload.savedAt().toEpochMilli());
+        out.writeBytes(header.array());
+        writeString(out, apiUrl); // Tells a hash collision from a match
+        ByteBuffer names = payload.names();
+        out.write(names.array(), names.arrayOffset(), names.limit());
+        return out.toByteArray();
+    }
+
+    private static Optional<Snapshot> decode(String apiUrl, ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                return Optional.empty();
+            }
+            Instant savedAt = Instant.ofEpochMilli(buffer.getLong());
+            if (!apiUrl.equals(readString(buffer))) {
+                return Optional.empty();
+            }
+            return Optional.of(new Snapshot(decodeNames(buffer), savedAt));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return Optional.empty(); // Truncated or corrupted file
+        }
+    }
+
+    // Leaves the buffer at the names, if the file is a snapshot of the API
+    private static boolean skipHeader(String apiUrl, ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+            return false;
+        }
+        buffer.getLong(); // Save time
+        return apiUrl.equals(readString(buffer));
+    }
+
+    private static List<String> decodeNames(ByteBuffer buffer) {
+        int size = readVarint(buffer);
+        List<String> godNames = new ArrayList<>(Math.min(size, buffer.remaining()));
+        for (int i = 0; i < size; i++) {
+            godNames.add(readString(buffer));
+        }
+        return godNames;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarint(buffer);
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 7 bits per byte, the high bit set on all but the last byte: most names take a single length byte
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte current = buffer.get();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IllegalArgumentException("Negative length: " + value);
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
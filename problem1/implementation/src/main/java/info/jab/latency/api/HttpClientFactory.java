@@ -0,0 +1,36 @@
+package info.jab.latency.api;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Provides the {@link HttpClient} of {@link GodApiClient} and {@link ByteScanningGodsFetcher}. A factory handing out
+ * the same client to every fetcher, as {@link SharedHttpClientFactory}, lets short-lived solvers reuse the pooled
+ * connections of the previous ones instead of opening, and for HTTPS handshaking, new ones on every run.
+ */
+@FunctionalInterface
+public interface HttpClientFactory {
+
+    /** A factory building a new client for each fetcher, the original behaviour. */
+    HttpClientFactory PER_FETCHER = connectTimeout -> HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .build();
+
+    /**
+     * Returns the client a fetcher sends all its requests with.
+     *
+     * @param connectTimeout The connection timeout the fetcher was given; a shared client may apply its own.
+     * @return The client, possibly shared with other fetchers.
+     */
+    HttpClient httpClient(Duration connectTimeout);
+
+    /**
+     * Returns the factory of the process, sharing a single client built with the default settings.
+     *
+     * @return The factory.
+     * @see HttpClientSettings#defaults()
+     */
+    static HttpClientFactory shared() {
+        return SharedHttpClientFactory.processWide();
+    }
+}
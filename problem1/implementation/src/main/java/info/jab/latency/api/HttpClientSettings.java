@@ -0,0 +1,44 @@
+package info.jab.latency.api;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How {@link SharedHttpClientFactory} builds its client.
+ *
+ * <p>The JDK client pools its connections per process, not per client: the keep-alive and pool size are not settings
+ * of a client but the {@code jdk.httpclient.keepalive.timeout} and {@code jdk.httpclient.connectionPoolSize} JVM flags,
+ * see the README.
+ *
+ * @param version The preferred HTTP version; with HTTP/2, the client falls back to HTTP/1.1 for the servers
+ *        that do not support it.
+ * @param connectTimeout The connection timeout of every request.
+ */
+public record HttpClientSettings(HttpClient.Version version, Duration connectTimeout) {
+
+    public HttpClientSettings {
+        Objects.requireNonNull(version, "version");
+        Objects.requireNonNull(connectTimeout, "connectTimeout");
+        if (connectTimeout.isNegative() || connectTimeout.isZero()) {
+            throw new IllegalArgumentException("connectTimeout must be positive: " + connectTimeout);
+        }
+    }
+
+    /**
+     * Returns settings preferring HTTP/2, with a 5 seconds connection timeout.
+     *
+     * @return The default settings.
+     */
+    public static HttpClientSettings defaults() {
+        return new HttpClientSettings(HttpClient.Version.HTTP_2, Duration.ofSeconds(5));
+    }
+
+    public HttpClientSettings withVersion(HttpClient.Version version) {
+        return new HttpClientSettings(version, connectTimeout);
+    }
+
+    public HttpClientSettings withConnectTimeout(Duration connectTimeout) {
+        return new HttpClientSettings(version, connectTimeout);
+    }
+}
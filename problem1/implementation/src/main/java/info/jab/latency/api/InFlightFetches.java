@@ -0,0 +1,100 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The fetches in flight by key: the first caller of a key runs the fetch, and the other callers of the key wait for it
+ * and share its result. Once the fetch completes, its result is either forgotten, for {@link SingleFlightGodsFetcher},
+ * or kept for every later caller, for {@link MemoizingGodsFetcher}. A failed fetch is never kept.
+ *
+ * <p>If the fetch in flight is interrupted, e.g. because its caller was cancelled, the waiting callers fetch again
+ * rather than failing.
+ *
+ * @param <K> The type of the keys, e.g. an API URL.
+ */
+final class InFlightFetches<K> {
+
+    @FunctionalInterface
+    interface Fetch {
+        List<String> fetch() throws IOException, InterruptedException;
+    }
+
+    private final boolean keepResults;
+    private final Map<K, CompletableFuture<List<String>>> fetches = new ConcurrentHashMap<>();
+    private final LongAdder sharedCalls = new LongAdder();
+
+    /**
+     * Constructs the fetches in flight, forgetting or keeping their results.
+     *
+     * @param keepResults Whether the successful results are kept until {@link #clear()}, instead of being forgotten
+     *        as soon as their fetch completes.
+     */
+    InFlightFetches(boolean keepResults) {
+        this.keepResults = keepResults;
+    }
+
+    /**
+     * Runs the fetch, unless one of the key is in flight, or kept, whose result is returned instead.
+     *
+     * @param key The key of the fetch.
+     * @param apiUrl The URL of the API, to describe a failure.
+     * @param fetch The fetch to run if none of the key is in flight or kept.
+     * @return The God names fetched, by this call or by the one it shared.
+     */
+    List<String> fetchOnce(K key, String apiUrl, Fetch fetch) throws IOException, InterruptedException {
+        while (true) {
+            CompletableFuture<List<String>> flight = new CompletableFuture<>();
+            CompletableFuture<List<String>> existing = fetches.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(key, flight, fetch);
+            }
+            sharedCalls.increment();
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof InterruptedException) {
+                    continue; // The leader was cancelled, which says nothing about the API: fetch again
+                } else if (cause instanceof IOException ioException) {
+                    throw ioException;
+                } else if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IOException("Shared fetch of " + apiUrl + " failed", cause);
+            }
+        }
+    }
+
+    /** Returns how many calls were served by a fetch in flight, or kept, instead of running their own. */
+    long sharedCalls() {
+        return sharedCalls.sum();
+    }
+
+    /** Forgets every kept result; the fetches in flight still complete for their waiting callers. */
+    void clear() {
+        fetches.clear();
+    }
+
+    private List<String> lead(K key, CompletableFuture<List<String>> flight, Fetch fetch) throws IOException, InterruptedException {
+        List<String> gods;
+        try {
+            gods = fetch.fetch();
+        } catch (Throwable t) {
+            // Leave the map first, so that nobody joins a fetch that is already over and the next caller fetches again
+            fetches.remove(key, flight);
+            flight.completeExceptionally(t);
+            throw t;
+        }
+        if (!keepResults) {
+            fetches.remove(key, flight);
+        }
+        flight.complete(gods);
+        return gods;
+    }
+}
@@ -0,0 +1,73 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A {@link GodsFetcher} decorator calling each API URL once and serving every later fetch of it, whatever the filter,
+ * from the payload received. Concurrent fetches of a URL not received yet wait for the single call in flight.
+ * A failed call is not kept: the next fetch of the URL calls the API again.
+ *
+ * <p>Every payload is held until {@link #clear()}, so an instance should live as long as its payloads stay relevant,
+ * e.g. one run of a {@link info.jab.latency.BatchSolver batch}, not the whole process.
+ */
+public class MemoizingGodsFetcher implements GodsFetcher {
+
+    private final GodsFetcher delegate;
+    private final InFlightFetches<String> payloads = new InFlightFetches<>(true);
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Constructs a MemoizingGodsFetcher keeping the payloads fetched by the delegate.
+     *
+     * @param delegate The fetcher that actually calls the APIs.
+     */
+    public MemoizingGodsFetcher(GodsFetcher delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl) throws IOException, InterruptedException {
+        return payloads.fetchOnce(apiUrl, apiUrl, () -> {
+            calls.increment();
+            return List.copyOf(delegate.fetchGods(apiUrl));
+        });
+    }
+
+    /**
+     * Filters the memoized payload of the API, so that every filter shares a single call.
+     */
+    @Override
+    public List<String> fetchGods(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        return fetchGods(apiUrl).stream()
+                .filter(filter)
+                .toList();
+    }
+
+    /**
+     * Returns how many times the delegate was called.
+     *
+     * @return The number of calls to the APIs so far.
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * Returns how many fetches were served by a payload received or in flight instead of calling the API.
+     *
+     * @return The number of memoized fetches so far.
+     */
+    public long hits() {
+        return payloads.sharedCalls();
+    }
+
+    /**
+     * Forgets every payload; the fetches in flight still complete for their waiting callers.
+     */
+    public void clear() {
+        payloads.clear();
+    }
+}
@@ -0,0 +1,62 @@
+package info.jab.latency.api;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * When {@link RetryingGodsFetcher} calls an API again after a transient failure, and how long it waits first.
+ * The waits grow exponentially with full jitter: the n-th retry waits a random time between zero and
+ * {@code min(maxDelay, baseDelay * 2^(n-1))}, so that the callers of a failing API do not retry in lockstep.
+ *
+ * @param maxAttempts The maximum number of calls per fetch, the first one included; 1 never retries.
+ * @param baseDelay The upper bound of the wait before the first retry.
+ * @param maxDelay The upper bound of every wait.
+ * @param retryBudgetRatio The retries earned by each fetch, between 0 and 1: with 0.1, one retry per ten fetches
+ *        on average, on top of a small reserve. Caps the extra load on an API that keeps failing.
+ */
+public record RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, double retryBudgetRatio) {
+
+    public RetryPolicy {
+        Objects.requireNonNull(baseDelay, "baseDelay");
+        Objects.requireNonNull(maxDelay, "maxDelay");
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        if (baseDelay.isNegative() || baseDelay.isZero()) {
+            throw new IllegalArgumentException("baseDelay must be positive: " + baseDelay);
+        }
+        if (maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("maxDelay must not be below baseDelay: " + maxDelay);
+        }
+        if (retryBudgetRatio < 0 || retryBudgetRatio > 1) {
+            throw new IllegalArgumentException("retryBudgetRatio must be in [0, 1]: " + retryBudgetRatio);
+        }
+    }
+
+    /**
+     * Returns a policy of at most 3 calls per fetch, waiting up to 50 ms then 100 ms, with a budget of one retry
+     * per ten fetches.
+     *
+     * @return The default policy.
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(3, Duration.ofMillis(50), Duration.ofSeconds(1), 0.1);
+    }
+
+    /**
+     * Returns the wait before a retry.
+     *
+     * @param retry The number of the retry, starting at 1.
+     * @param random The source of the jitter.
+     * @return A random wait between zero and the exponential bound of the retry.
+     */
+    public Duration backoff(int retry, RandomGenerator random) {
+        long maxNanos = maxDelay.toNanos();
+        long boundNanos = baseDelay.toNanos();
+        for (int i = 1; i < retry && boundNanos < maxNanos; i++) {
+            boundNanos *= 2; // No overflow, the bound stops doubling once above maxDelay
+        }
+        return Duration.ofNanos(random.nextLong(Math.min(boundNanos, maxNanos) + 1));
+    }
+}
@@ -0,0 +1,149 @@
+package info.jab.latency.api;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.ClosedChannelException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link GodsFetcher} decorator calling an API again after a transient failure, waiting an exponential backoff
+ * with full jitter between the calls, see {@link RetryPolicy}. The fetches are GETs, hence idempotent.
+ *
+ * <p>Only the failures to connect, the connections lost mid-exchange and the 502, 503 and 504 statuses, a gateway
+ * or the API telling that it is momentarily unavailable, are transient. A response timeout is not: the API is slow
+ * rather than unreachable, and calling it again would only add to its load. Neither are the other error statuses
+ * and the malformed payloads, which another call would answer the same, nor an open circuit, which is a decision
+ * not to call the API.
+ *
+ * <p>No retry outlives the solve: within a {@link FetchDeadline}, the fetch gives up when the wait would not end
+ * before the deadline. Without one, e.g. for a solve without latency budget, nothing else bounds a fetch overall:
+ * it may take up to {@link RetryPolicy#maxAttempts()} times the request timeout, plus the waits. Across all APIs,
+ * the retries are also capped by a budget that each fetch tops up by {@link RetryPolicy#retryBudgetRatio()},
+ * so that a widespread outage does not double the load as it starts.
+ */
+public class RetryingGodsFetcher implements GodsFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryingGodsFetcher.class);
+
+    // In thousandths of a retry, so that fractional ratios add up exactly
+    private static final long MILLIS_PER_RETRY = 1_000;
+    private static final long RESERVE_RETRIES = 10;
+
+    @FunctionalInterface
+    private interface Fetch {
+        List<String> fetch() throws IOException, InterruptedException;
+    }
+
+    private final GodsFetcher delegate;
+    private final RetryPolicy policy;
+    private final AtomicLong budget = new AtomicLong(RESERVE_RETRIES * MILLIS_PER_RETRY);
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deniedRetries = new LongAdder();
+
+    /**
+     * Constructs a RetryingGodsFetcher retrying the failed calls of the delegate.
+     *
+     * @param delegate The fetcher that actually calls the APIs.
+     * @param policy How many times and when to retry.
+     */
+    public RetryingGodsFetcher(GodsFetcher delegate, RetryPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl) throws IOException, InterruptedException {
+        return call(apiUrl, () -> delegate.fetchGods(apiUrl));
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        return call(apiUrl, () -> delegate.fetchGods(apiUrl, filter));
+    }
+
+    /**
+     * Returns how many times an API was called again after a transient failure.
+     *
+     * @return The number of retries so far.
+     */
+    public long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns how many transient failures were not retried because of the deadline or the retry budget.
+     *
+     * @return The number of denied retries so far.
+     */
+    public long deniedRetries() {
+        return deniedRetries.sum();
+    }
+
+    private List<String> call(String apiUrl, Fetch fetch) throws IOException, InterruptedException {
+        earnRetryBudget();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return fetch.fetch();
+            } catch (IOException e) {
+                if (attempt >= policy.maxAttempts() || !isTransient(e)) {
+                    throw e;
+                }
+                Duration backoff = policy.backoff(attempt, ThreadLocalRandom.current());
+                Optional<Duration> remaining = FetchDeadline.remaining();
+                if (remaining.isPresent() && backoff.compareTo(remaining.get()) >= 0) {
+                    logger.debug("Not retrying API {}, the deadline is {} away: {}", apiUrl, remaining.get(), e.toString());
+                    deniedRetries.increment();
+                    throw e;
+                }
+                if (!spendRetryBudget()) {
+                    logger.warn("Not retrying API {}, the retry budget is spent: {}", apiUrl, e.toString());
+                    deniedRetries.increment();
+                    throw e;
+                }
+                retries.increment();
+                logger.info("Retrying API {} in {} ms after attempt {} failed: {}", apiUrl, backoff.toMillis(), attempt, e.toString());
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    static boolean isTransient(IOException failure) {
+        if (failure instanceof CircuitOpenException
+                || (failure instanceof HttpTimeoutException && !(failure instanceof HttpConnectTimeoutException))) {
+            return false;
+        }
+        if (failure instanceof UnusableResponseException unusable) {
+            return unusable.statusCode() == 502 || unusable.statusCode() == 503 || unusable.statusCode() == 504;
+        }
+        // The HTTP client wraps the socket-level cause in a plain IOException
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketException || cause instanceof EOFException || cause instanceof ClosedChannelException
+                    || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void earnRetryBudget() {
+        long earned = Math.round(policy.retryBudgetRatio() * MILLIS_PER_RETRY);
+        long capacity = RESERVE_RETRIES * MILLIS_PER_RETRY;
+        budget.getAndUpdate(current -> Math.min(capacity, current + earned));
+    }
+
+    private boolean spendRetryBudget() {
+        return budget.getAndUpdate(current -> current >= MILLIS_PER_RETRY ? current - MILLIS_PER_RETRY : current) >= MILLIS_PER_RETRY;
+    }
+}
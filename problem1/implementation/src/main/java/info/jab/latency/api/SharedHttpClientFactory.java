@@ -0,0 +1,63 @@
+package info.jab.latency.api;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link HttpClientFactory} handing out the same client to every fetcher, whatever connection timeout they were
+ * given: its connections, and their HTTP/2 streams, are reused across fetchers and solvers. The client runs its
+ * response handling on virtual threads, so slow body handlers do not hold platform threads.
+ *
+ * <p>Closing the factory closes the client, once the exchanges in flight are done; the fetchers using it must not
+ * be called anymore. The {@link HttpClientFactory#shared() process-wide} factory is never closed. Thread-safe.
+ */
+public final class SharedHttpClientFactory implements HttpClientFactory, AutoCloseable {
+
+    private final HttpClientSettings settings;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    // Holder idiom: built on first use only
+    private static final class ProcessWide {
+        static final SharedHttpClientFactory INSTANCE = new SharedHttpClientFactory(HttpClientSettings.defaults());
+    }
+
+    /**
+     * Constructs a factory and its client.
+     *
+     * @param settings How the client is built.
+     */
+    public SharedHttpClientFactory(HttpClientSettings settings) {
+        this.settings = settings;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .version(settings.version())
+                .connectTimeout(settings.connectTimeout())
+                .executor(executor)
+                .build();
+    }
+
+    static SharedHttpClientFactory processWide() {
+        return ProcessWide.INSTANCE;
+    }
+
+    /**
+     * Returns the shared client; its connection timeout is the one of the settings, not the given one.
+     */
+    @Override
+    public HttpClient httpClient(Duration connectTimeout) {
+        return httpClient;
+    }
+
+    public HttpClientSettings settings() {
+        return settings;
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        executor.close();
+    }
+}
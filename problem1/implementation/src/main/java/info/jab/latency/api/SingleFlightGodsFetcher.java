@@ -0,0 +1,53 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link GodsFetcher} decorator that deduplicates concurrent fetches: while a fetch of an API URL is in flight,
+ * other callers asking for the same URL and filter wait for it and share its result instead of calling the API again.
+ * Nothing is cached once the fetch completes.
+ *
+ * <p>If the fetch in flight is interrupted, e.g. because its caller was cancelled, the waiting callers fetch again
+ * rather than failing. Note that hedged requests to the same URL are coalesced as well, so hedging should be applied
+ * on top of a fetcher that is not shared.
+ */
+public class SingleFlightGodsFetcher implements GodsFetcher {
+
+    private final GodsFetcher delegate;
+    private final InFlightFetches<Key> inFlight = new InFlightFetches<>(false);
+
+    // A null filter stands for the unfiltered fetch
+    private record Key(String apiUrl, @Nullable Predicate<String> filter) {}
+
+    /**
+     * Constructs a SingleFlightGodsFetcher sharing the in-flight fetches of the delegate.
+     *
+     * @param delegate The fetcher that actually calls the APIs.
+     */
+    public SingleFlightGodsFetcher(GodsFetcher delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl) throws IOException, InterruptedException {
+        return inFlight.fetchOnce(new Key(apiUrl, null), apiUrl, () -> delegate.fetchGods(apiUrl));
+    }
+
+    @Override
+    public List<String> fetchGods(String apiUrl, Predicate<String> filter) throws IOException, InterruptedException {
+        return inFlight.fetchOnce(new Key(apiUrl, filter), apiUrl, () -> delegate.fetchGods(apiUrl, filter));
+    }
+
+    /**
+     * Returns how many calls were served by a fetch already in flight instead of calling the API.
+     *
+     * @return The number of coalesced calls so far.
+     */
+    public long coalescedCalls() {
+        return inFlight.sharedCalls();
+    }
+}
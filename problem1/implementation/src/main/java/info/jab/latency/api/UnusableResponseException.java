@@ -0,0 +1,46 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link GodApiClient} and {@link ByteScanningGodsFetcher} when an API answered, but not with a JSON array
+ * of God names: an error status, or a payload that cannot be decoded or parsed. Unlike the other I/O failures the
+ * API is reachable: the solver serves its snapshot if it has one, and otherwise counts it as an API without names.
+ */
+public class UnusableResponseException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    /**
+     * Constructs the exception for a response with an error status.
+     *
+     * @param apiUrl The URL of the API.
+     * @param statusCode The status code of the response.
+     */
+    public UnusableResponseException(String apiUrl, int statusCode) {
+        super("API " + apiUrl + " answered with status code " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Constructs the exception for a 200 response whose payload cannot be decoded or parsed.
+     *
+     * @param apiUrl The URL of the API.
+     * @param cause The decoding or parsing error.
+     */
+    public UnusableResponseException(String apiUrl, IOException cause) {
+        super("API " + apiUrl + " answered with a malformed payload: " + cause.getMessage(), cause);
+        this.statusCode = 200;
+    }
+
+    /**
+     * Returns the status code of the response, 200 for a malformed payload.
+     *
+     * @return The status code.
+     */
+    public int statusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,98 @@
+package info.jab.latency.service;
+
+import java.math.BigInteger;
+
+/**
+ * Sums non-negative decimal values into a primitive long, and only falls back to BigInteger
+ * for values that do not fit in a long or when the long total overflows.
+ * Not thread-safe: use one accumulator per thread and {@link #add(DecimalSumAccumulator) combine} them.
+ */
+public class DecimalSumAccumulator {
+
+    private long smallSum;
+    private BigInteger largeSum = BigInteger.ZERO;
+
+    /**
+     * Adds the given non-negative value.
+     *
+     * @param value The value to add.
+     */
+    public void add(long value) {
+        long sum = smallSum + value;
+        // Both operands are non-negative, so a negative result means the long total overflowed
+        if (sum < 0) {
+            largeSum = largeSum.add(BigInteger.valueOf(smallSum));
+            sum = value;
+        }
+        smallSum = sum;
+    }
+
+    /**
+     * Adds the given non-negative value.
+     *
+     * @param value The value to add.
+     */
+    public void add(BigInteger value) {
+        if (value.bitLength() < Long.SIZE) {
+            add(value.longValue());
+        } else {
+            largeSum = largeSum.add(value);
+        }
+    }
+
+    /**
+     * Adds the name's decimal value, using the converter's long conversion when the value fits.
+     *
+     * @param converter The converter to use.
+     * @param name The name to convert and add.
+     */
+    public void add(DecimalValueConverter converter, String name) {
+        long value = converter.convertToLong(name);
+        if (value != DecimalValueConverter.NOT_A_LONG) {
+            add(value);
+        } else {
+            largeSum = largeSum.add(converter.convertToDecimal(name));
+        }
+    }
+
+    /**
+     * Adds the name's decimal value the given number of times, converting it once.
+     *
+     * @param converter The converter to use.
+     * @param name The name to convert and add.
+     * @param times How many times the value is added, not negative.
+     */
+    public void add(DecimalValueConverter converter, String name, long times) {
+        long value = converter.convertToLong(name);
+        if (value != DecimalValueConverter.NOT_A_LONG) {
+            long product = value * times;
+            // Exact unless the product overflowed, which the division tells
+            if (value == 0 || (product >= 0 && product / value == times)) {
+                add(product);
+            } else {
+                largeSum = largeSum.add(BigInteger.valueOf(value).multiply(BigInteger.valueOf(times)));
+            }
+        } else {
+            largeSum = largeSum.add(converter.convertToDecimal(name).multiply(BigInteger.valueOf(times)));
+        }
+    }
+
+    /**
+     * Adds the partial sum of another accumulator.
+     *
+     * @param other The accumulator to combine with this one.
+     */
+    public void add(DecimalSumAccumulator other) {
+        add(other.smallSum);
+        largeSum = largeSum.add(other.largeSum);
+    }
+
+    /**
+     * Returns the total of all the values added so far.
+     *
+     * @return The exact sum as a BigInteger.
+     */
+    public BigInteger sum() {
+        return largeSum.add(BigInteger.valueOf(smallSum));
+    }
+}
@@ -9,6 +9,12 @@ import org.jspecify.annotations.NonNull;
  */
 public interface DecimalValueConverter {
 
+    /**
+     * Returned by {@link #convertToLong(String)} when the decimal value does not fit in a long.
+     * Decimal values are never negative, so it cannot clash with a real value.
+     */
+    long NOT_A_LONG = -1L;
+
     /**
      * Converts the given name to its decimal representation as a BigInteger.
      *
@@ -16,4 +22,17 @@ public interface DecimalValueConverter {
      * @return The BigInteger decimal representation of the name. Returns BigInteger.ZERO if the name is null or empty.
      */
     BigInteger convertToDecimal(@NonNull String name);
+
+    /**
+     * Converts the given name to its decimal representation as a long, when it fits.
+     * Implementations should override it to avoid allocating a BigInteger for small values,
+     * and may conservatively return {@link #NOT_A_LONG} for values close to {@link Long#MAX_VALUE}.
+     *
+     * @param name The string name to convert.
+     * @return The decimal representation of the name, or {@link #NOT_A_LONG} if it does not fit in a long.
+     */
+    default long convertToLong(@NonNull String name) {
+        BigInteger value = convertToDecimal(name);
+        return value.bitLength() < Long.SIZE ? value.longValue() : NOT_A_LONG;
+    }
 }
@@ -0,0 +1,80 @@
+package info.jab.latency.service;
+
+import java.math.BigInteger;
+
+import org.jspecify.annotations.NonNull;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * A {@link DecimalValueConverter} decorator remembering the decimal values of the most frequent names, for the names
+ * that appear in several API responses or solves. The cache is bounded, concurrent, and evicts with W-TinyLFU,
+ * which keeps frequent names over names seen once. Thread-safe if the delegate is.
+ */
+public class MemoizingDecimalValueConverter implements DecimalValueConverter {
+
+    private final DecimalValueConverter delegate;
+    private final Cache<String, BigInteger> values;
+
+    /**
+     * A snapshot of the cache counters.
+     *
+     * @param hitCount The conversions served from the cache.
+     * @param missCount The conversions delegated.
+     * @param evictionCount The names evicted to keep the cache within its bound.
+     * @param estimatedSize The approximate number of names currently cached.
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount, long estimatedSize) {
+
+        /**
+         * Returns the share of conversions served from the cache.
+         *
+         * @return The hit ratio, between 0 and 1; 0 if there were no conversions.
+         */
+        public double hitRatio() {
+            long conversions = hitCount + missCount;
+            return conversions == 0 ? 0.0 : (double) hitCount / conversions;
+        }
+    }
+
+    /**
+     * Constructs a MemoizingDecimalValueConverter keeping at most the given number of names.
+     *
+     * @param delegate The converter that actually converts the names.
+     * @param maximumNames The maximum number of names cached.
+     */
+    public MemoizingDecimalValueConverter(DecimalValueConverter delegate, long maximumNames) {
+        if (maximumNames <= 0) {
+            throw new IllegalArgumentException("maximumNames must be positive: " + maximumNames);
+        }
+        this.delegate = delegate;
+        this.values = Caffeine.newBuilder()
+                .maximumSize(maximumNames)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public BigInteger convertToDecimal(@NonNull String name) {
+        return values.get(name, delegate::convertToDecimal);
+    }
+
+    // The cached BigInteger serves both conversions, so that a name is converted once whichever is asked first
+    @Override
+    public long convertToLong(@NonNull String name) {
+        BigInteger value = convertToDecimal(name);
+        return value.bitLength() < Long.SIZE ? value.longValue() : NOT_A_LONG;
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return The current counters.
+     */
+    public Stats stats() {
+        CacheStats stats = values.stats();
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), values.estimatedSize());
+    }
+}
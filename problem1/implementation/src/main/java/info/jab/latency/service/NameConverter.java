@@ -2,20 +2,35 @@ package info.jab.latency.service;
 
 import java.math.BigInteger;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import org.jspecify.annotations.NonNull;
 
 /**
  * Converts string names to their BigInteger decimal representation.
  * Implements the {@link DecimalValueConverter} interface.
+ *
+ * <p>The decimal value is built arithmetically instead of concatenating the digits into a temporary String:
+ * values of up to 18 digits are accumulated in a {@code long}, larger ones in a reusable per-thread buffer of
+ * 32-bit words, so the only allocations per name are the resulting BigInteger and its magnitude.
  */
 public class NameConverter implements DecimalValueConverter {
 
+    // 10^18 < Long.MAX_VALUE, so any value with at most 18 digits fits in a long
+    private static final int MAX_LONG_DIGITS = 18;
+    // 10^9 < 2^32, so a chunk of at most 9 digits can be used as a single word multiplier
+    private static final int MAX_CHUNK_DIGITS = 9;
+    private static final int[] POWERS_OF_TEN = {
+        1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+    };
+    private static final double BITS_PER_DIGIT = Math.log(10) / Math.log(2);
+    private static final long WORD_MASK = 0xFFFF_FFFFL;
+
+    private static final ThreadLocal<int[]> WORD_BUFFER = ThreadLocal.withInitial(() -> new int[16]);
+
     /**
      * Converts the given name to its decimal representation as a BigInteger.
-     * Each character in the lowercase version of the name is converted to its ASCII integer value,
-     * and these values are concatenated to form a string, which is then converted to a BigInteger.
+     * Each UTF-16 char of the name is converted to its integer value (e.g. 'Z' is 90),
+     * and these values are concatenated in order to form the decimal digits of the result.
      *
      * @param name The string name to convert. If null or empty, BigInteger.ZERO is returned.
      * @return The BigInteger decimal representation of the name.
@@ -26,10 +41,119 @@ public class NameConverter implements DecimalValueConverter {
             return BigInteger.ZERO;
         }
 
-        String charValuesString = name.chars()
-                                      .mapToObj(String::valueOf)
-                                      .collect(Collectors.joining());
+        int digits = countDigits(name);
+        if (digits <= MAX_LONG_DIGITS) {
+            return BigInteger.valueOf(accumulate(name));
+        }
+        return accumulateInWords(name, digits);
+    }
 
-        return new BigInteger(charValuesString);
+    /**
+     * Converts the given name to its decimal representation as a long, without allocating.
+     *
+     * @param name The string name to convert. If null or empty, 0 is returned.
+     * @return The decimal representation of the name, or {@link #NOT_A_LONG} if it has more than 18 digits.
+     */
+    @Override
+    public long convertToLong(@NonNull String name) {
+        if (Objects.isNull(name) || name.isEmpty()) {
+            return 0L;
+        }
+        return countDigits(name) <= MAX_LONG_DIGITS ? accumulate(name) : NOT_A_LONG;
+    }
+
+    private static int countDigits(String name) {
+        int digits = 0;
+        for (int i = 0; i < name.length(); i++) {
+            digits += digitsOf(name.charAt(i));
+        }
+        return digits;
+    }
+
+    private static int digitsOf(char c) {
+        if (c < 10) {
+            return 1;
+        } else if (c < 100) {
+            return 2;
+        } else if (c < 1_000) {
+            return 3;
+        } else if (c < 10_000) {
+            return 4;
+        }
+        return 5;
+    }
+
+    private static long accumulate(String name) {
+        long value = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            value = value * POWERS_OF_TEN[digitsOf(c)] + c;
+        }
+        return value;
+    }
+
+    private static BigInteger accumulateInWords(String name, int digits) {
+        int[] words = wordBuffer((int) (digits * BITS_PER_DIGIT / Integer.SIZE) + 2);
+        // Little-endian base 2^32 magnitude; starts as the single word 0
+        words[0] = 0;
+        int length = 1;
+
+        int chunk = 0;
+        int chunkDigits = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            int charDigits = digitsOf(c);
+            if (chunkDigits + charDigits > MAX_CHUNK_DIGITS) {
+                length = multiplyAdd(words, length, POWERS_OF_TEN[chunkDigits], chunk);
+                chunk = 0;
+                chunkDigits = 0;
+            }
+            chunk = chunk * POWERS_OF_TEN[charDigits] + c;
+            chunkDigits += charDigits;
+        }
+        length = multiplyAdd(words, length, POWERS_OF_TEN[chunkDigits], chunk);
+
+        return new BigInteger(1, toBigEndianBytes(words, length));
+    }
+
+    private static int[] wordBuffer(int minLength) {
+        int[] words = WORD_BUFFER.get();
+        if (words.length < minLength) {
+            words = new int[Math.max(minLength, words.length * 2)];
+            WORD_BUFFER.set(words);
+        }
+        return words;
+    }
+
+    /**
+     * Computes {@code words = words * multiplier + addend} in place.
+     *
+     * @return the new number of significant words
+     */
+    private static int multiplyAdd(int[] words, int length, int multiplier, int addend) {
+        long carry = addend & WORD_MASK;
+        long factor = multiplier & WORD_MASK;
+        for (int i = 0; i < length; i++) {
+            long product = (words[i] & WORD_MASK) * factor + carry;
+            words[i] = (int) product;
+            carry = product >>> Integer.SIZE;
+        }
+        if (carry != 0) {
+            words[length++] = (int) carry;
+        }
+        return length;
+    }
+
+    private static byte[] toBigEndianBytes(int[] words, int length) {
+        byte[] bytes = new byte[length * Integer.BYTES];
+        for (int i = 0; i < length; i++) {
+            int word = words[length - 1 - i];
+            int offset = i * Integer.BYTES;
+            bytes[offset] = (byte) (word >>> 24);
+            bytes[offset + 1] = (byte) (word >>> 16);
+            bytes[offset + 2] = (byte) (word >>> 8);
+            bytes[offset + 3] = (byte) word;
+        }
+        return bytes;
     }
 }
@@ -0,0 +1,128 @@
+package info.jab.latency.service;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Converts and sums God names on a {@link ForkJoinPool}, for name sets too large for a single core.
+ * The names are split in halves down to chunks of a few thousand names, each converted and summed into
+ * its own {@link DecimalSumAccumulator}. The partial sums are then combined pairwise up the split tree,
+ * so each addition joins operands of similar size instead of growing a single total chunk after chunk.
+ *
+ * <p>The converter is shared by the tasks and must be thread-safe; {@link NameConverter} keeps its scratch
+ * buffer per thread. The names must be a random-access list.
+ */
+public final class ParallelDecimalSum {
+
+    /** The fewest names a task converts itself rather than splitting them further. */
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 4_096;
+
+    // A few chunks per worker, so that a worker done early can steal from a slower one
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+
+    /**
+     * Constructs a ParallelDecimalSum running on the pool with the default chunk size.
+     *
+     * @param pool The pool running the conversions.
+     */
+    public ParallelDecimalSum(ForkJoinPool pool) {
+        this(pool, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a ParallelDecimalSum running on the pool.
+     *
+     * @param pool The pool running the conversions.
+     * @param minChunkSize The fewest names a task converts itself rather than splitting them further.
+     */
+    public ParallelDecimalSum(ForkJoinPool pool, int minChunkSize) {
+        if (minChunkSize <= 0) {
+            throw new IllegalArgumentException("minChunkSize must be positive: " + minChunkSize);
+        }
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Returns the sum of the decimal values of the names.
+     *
+     * @param converter The converter of the names, shared by the tasks.
+     * @param godNames The names to convert and sum.
+     * @return The exact sum.
+     */
+    public BigInteger sum(DecimalValueConverter converter, List<String> godNames) {
+        return pool.invoke(new ChunkSum(converter, godNames, null, 0, godNames.size(), chunkSize(godNames.size()))).sum();
+    }
+
+    /**
+     * Returns the sum of the decimal values of the names, each added as many times as its count.
+     *
+     * @param converter The converter of the names, shared by the tasks.
+     * @param godNames The names to convert and sum, usually distinct.
+     * @param counts How many times each name, at the same index, is added.
+     * @return The exact sum.
+     */
+    public BigInteger sum(DecimalValueConverter converter, List<String> godNames, long[] counts) {
+        if (counts.length != godNames.size()) {
+            throw new IllegalArgumentException("Expected " + godNames.size() + " counts but got " + counts.length);
+        }
+        return pool.invoke(new ChunkSum(converter, godNames, counts, 0, godNames.size(), chunkSize(godNames.size()))).sum();
+    }
+
+    private int chunkSize(int size) {
+        return Math.max(minChunkSize, size / (pool.getParallelism() * CHUNKS_PER_WORKER));
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable, but these tasks never leave the pool
+    private static final class ChunkSum extends RecursiveTask<DecimalSumAccumulator> {
+
+        private final DecimalValueConverter converter;
+        private final List<String> godNames;
+        private final long @Nullable [] counts;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ChunkSum(DecimalValueConverter converter, List<String> godNames, long @Nullable [] counts, int from, int to, int chunkSize) {
+            this.converter = converter;
+            this.godNames = godNames;
+            this.counts = counts;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected DecimalSumAccumulator compute() {
+            if (to - from <= chunkSize) {
+                return sumChunk();
+            }
+            int middle = (from + to) >>> 1;
+            ChunkSum left = new ChunkSum(converter, godNames, counts, from, middle, chunkSize);
+            left.fork();
+            DecimalSumAccumulator sum = new ChunkSum(converter, godNames, counts, middle, to, chunkSize).compute();
+            sum.add(left.join());
+            return sum;
+        }
+
+        private DecimalSumAccumulator sumChunk() {
+            DecimalSumAccumulator accumulator = new DecimalSumAccumulator();
+            long[] times = counts;
+            for (int i = from; i < to; i++) {
+                if (times == null) {
+                    accumulator.add(converter, godNames.get(i));
+                } else {
+                    accumulator.add(converter, godNames.get(i), times[i]);
+                }
+            }
+            return accumulator;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package info.jab.latency;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BatchJsonLinesTest {
+
+    @Test
+    @DisplayName("Given job lines with comments and blank lines, when reading the jobs, then skip them and default the letters to n")
+    void readJobs_commentsAndDefaults_shouldReadEveryJob() {
+        // Given
+        String lines = """
+                # nightly jobs
+                {"id": "greek", "apiUrls": ["https://greek", "https://roman"]}
+
+                {"id": "nordic", "apiUrls": ["https://nordic"], "letters": "tO"}
+                """;
+
+        // When
+        List<BatchJob> jobs = new ArrayList<>();
+        BatchJsonLines.readJobs(new BufferedReader(new StringReader(lines))).forEachRemaining(jobs::add);
+
+        // Then
+        assertThat(jobs).containsExactly(
+                new BatchJob("greek", List.of("https://greek", "https://roman"), Set.of('n')),
+                new BatchJob("nordic", List.of("https://nordic"), Set.of('t', 'O')));
+    }
+
+    @Test
+    @DisplayName("Given a job line without API URL, when reading the jobs, then throw IllegalArgumentException with the line number")
+    void readJobs_missingApiUrls_shouldThrowWithLineNumber() {
+        // Given
+        String lines = """
+                {"id": "greek", "apiUrls": ["https://greek"]}
+                {"id": "empty", "apiUrls": []}
+                """;
+        Iterator<BatchJob> jobs = BatchJsonLines.readJobs(new BufferedReader(new StringReader(lines)));
+        jobs.next();
+
+        // When / Then
+        assertThatThrownBy(jobs::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Line 2");
+    }
+
+    @Test
+    @DisplayName("Given a malformed job line between valid ones, when reading the jobs, then throw for that line only and read the next ones")
+    void readJobs_malformedLine_shouldThrowForThatLineAndGoOn() {
+        // Given
+        String lines = """
+                {"id": "greek", "apiUrls": ["https://greek"]}
+                {"id": "broken", "apiUrls": "https://roman"}
+                {"id": "nordic", "apiUrls": ["https://nordic"]}
+                """;
+        Iterator<BatchJob> jobs = BatchJsonLines.readJobs(new BufferedReader(new StringReader(lines)));
+        jobs.next();
+
+        // When / Then
+        assertThatThrownBy(jobs::next)
+                .isInstanceOfSatisfying(MalformedJobException.class, e -> {
+                    assertThat(e.lineNumber()).isEqualTo(2);
+                    assertThat(e.jobId()).isEqualTo("broken");
+                });
+        assertThat(jobs.hasNext()).isTrue();
+        assertThat(jobs.next().id()).isEqualTo("nordic");
+        assertThat(jobs.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given a solved and a failed result, when formatting them, then write the sum as a string or the failure")
+    void formatResult_solvedAndFailed_shouldWriteOneJsonObjectEach() {
+        // Given
+        SolveResult solveResult = new SolveResult(new BigInteger("78179288397447443426"), List.of("https://greek"),
+                List.of("https://roman"), List.of());
+        BatchResult solved = BatchResult.solved("greek", solveResult, Duration.ofMillis(120));
+        BatchResult failed = BatchResult.failed("roman", "java.io.IOException: Connection reset", Duration.ofMillis(15));
+
+        // When
+        String solvedLine = BatchJsonLines.formatResult(solved);
+        String failedLine = BatchJsonLines.formatResult(failed);
+
+        // Then
+        assertThat(solvedLine).isEqualTo("{\"id\":\"greek\",\"sum\":\"78179288397447443426\",\"includedApiUrls\":[\"https://greek\"],"
+                + "\"missingApiUrls\":[\"https://roman\"],\"staleApiUrls\":[],\"elapsedMillis\":120}");
+        assertThat(failedLine).isEqualTo("{\"id\":\"roman\",\"failure\":\"java.io.IOException: Connection reset\",\"elapsedMillis\":15}");
+    }
+}
@@ -0,0 +1,177 @@
+package info.jab.latency;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import info.jab.latency.api.GodsFetcher;
+import info.jab.latency.service.NameConverter;
+
+class BatchSolverTest {
+
+    private static final String GREEK_API_URL = "stub://greek";
+    private static final String ROMAN_API_URL = "stub://roman";
+    private static final String DOWN_API_URL = "stub://down";
+    private static final Map<String, List<String>> PAYLOADS = Map.of(
+            GREEK_API_URL, List.of("Zeus", "Nike", "Hera"),
+            ROMAN_API_URL, List.of("Neptune", "Juno"));
+
+    private final NameConverter nameConverter = new NameConverter();
+
+    @Test
+    @DisplayName("Given jobs sharing API URLs, when running the batch, then fetch each URL once and solve every job")
+    void run_sharedApiUrls_shouldFetchEachUrlOnce() throws Exception {
+        // Given
+        Map<String, AtomicInteger> upstreamCalls = new ConcurrentHashMap<>();
+        GodsFetcher api = apiUrl -> {
+            upstreamCalls.computeIfAbsent(apiUrl, url -> new AtomicInteger()).incrementAndGet();
+            return PAYLOADS.getOrDefault(apiUrl, List.of());
+        };
+        BatchSolver batchSolver = new BatchSolver(api, nameConverter, SolverOptions.defaults(), 2);
+        List<BatchJob> jobs = List.of(
+                new BatchJob("n", List.of(GREEK_API_URL, ROMAN_API_URL), Set.of('n')),
+                new BatchJob("h", List.of(GREEK_API_URL), Set.of('H')),
+                new BatchJob("nj", List.of(ROMAN_API_URL), Set.of('n', 'j')));
+        List<BatchResult> results = new ArrayList<>();
+
+        // When
+        BatchSolver.Stats stats = batchSolver.run(jobs.iterator(), results::add);
+
+        // Then
+        assertThat(results).extracting(BatchResult::jobId).containsExactlyInAnyOrder("n", "h", "nj");
+        assertThat(results).allMatch(BatchResult::isSolved);
+        assertThat(sumOf(results, "n")).isEqualTo(sumOfNames("Nike", "Neptune"));
+        assertThat(sumOf(results, "h")).isEqualTo(sumOfNames("Hera"));
+        assertThat(sumOf(results, "nj")).isEqualTo(sumOfNames("Neptune", "Juno"));
+        assertThat(upstreamCalls.get(GREEK_API_URL)).hasValue(1);
+        assertThat(upstreamCalls.get(ROMAN_API_URL)).hasValue(1);
+        assertThat(stats).isEqualTo(new BatchSolver.Stats(3, 0, 2, 2));
+    }
+
+    @Test
+    @DisplayName("Given a job with a failing API, when running the batch, then report that job as failed and solve the others")
+    void run_failingApi_shouldFailOnlyItsJob() throws Exception {
+        // Given
+        GodsFetcher api = apiUrl -> {
+            if (apiUrl.equals(DOWN_API_URL)) {
+                throw new IOException("Connection reset");
+            }
+            return PAYLOADS.getOrDefault(apiUrl, List.of());
+        };
+        BatchSolver batchSolver = new BatchSolver(api, nameConverter, SolverOptions.defaults(), 4);
+        List<BatchJob> jobs = List.of(
+                new BatchJob("down", List.of(GREEK_API_URL, DOWN_API_URL), Set.of('n')),
+                new BatchJob("up", List.of(GREEK_API_URL), Set.of('n')));
+        List<BatchResult> results = new ArrayList<>();
+
+        // When
+        BatchSolver.Stats stats = batchSolver.run(jobs.iterator(), results::add);
+
+        // Then
+        assertThat(results).filteredOn(result -> result.jobId().equals("down")).singleElement()
+                .satisfies(result -> {
+                    assertThat(result.isSolved()).isFalse();
+                    assertThat(result.failure()).contains("Connection reset");
+                });
+        assertThat(sumOf(results, "up")).isEqualTo(sumOfNames("Nike"));
+        assertThat(stats.solvedJobs()).isEqualTo(1);
+        assertThat(stats.failedJobs()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a global request limit, when running concurrent jobs, then never exceed it across jobs")
+    void run_requestLimit_shouldCapRequestsAcrossJobs() throws Exception {
+        // Given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        GodsFetcher slowApi = apiUrl -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return List.of("Nike");
+        };
+        SolverOptions options = SolverOptions.defaults().withConcurrencyLimits(ConcurrencyLimits.of(2));
+        BatchSolver batchSolver = new BatchSolver(slowApi, nameConverter, options, 8);
+        List<BatchJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            jobs.add(new BatchJob("job-" + i, List.of("stub://api-" + i, "stub://api-" + (i + 1)), Set.of('n')));
+        }
+        List<BatchResult> results = new ArrayList<>();
+
+        // When
+        BatchSolver.Stats stats = batchSolver.run(jobs.iterator(), results::add);
+
+        // Then
+        assertThat(results).hasSize(16).allMatch(BatchResult::isSolved);
+        assertThat(stats.apiCalls()).isEqualTo(17);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a malformed job line, when running the batch, then report it as failed with its line number and solve the others")
+    void run_malformedJobLine_shouldFailOnlyThatLine() throws Exception {
+        // Given
+        GodsFetcher api = apiUrl -> PAYLOADS.getOrDefault(apiUrl, List.of());
+        BatchSolver batchSolver = new BatchSolver(api, nameConverter, SolverOptions.defaults(), 2);
+        String lines = """
+                {"id": "greek", "apiUrls": ["stub://greek"]}
+                not a job
+                {"id": "roman", "apiUrls": ["stub://roman"]}
+                """;
+        List<BatchResult> results = new ArrayList<>();
+
+        // When
+        BatchSolver.Stats stats = batchSolver.run(BatchJsonLines.readJobs(new BufferedReader(new StringReader(lines))), results::add);
+
+        // Then
+        assertThat(results).filteredOn(result -> result.jobId().equals("line 2")).singleElement()
+                .satisfies(result -> {
+                    assertThat(result.isSolved()).isFalse();
+                    assertThat(result.failure()).startsWith("Line 2");
+                });
+        assertThat(sumOf(results, "greek")).isEqualTo(sumOfNames("Nike"));
+        assertThat(sumOf(results, "roman")).isEqualTo(sumOfNames("Neptune"));
+        assertThat(stats.solvedJobs()).isEqualTo(2);
+        assertThat(stats.failedJobs()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given the ASYNC fan-out, when creating a batch solver, then throw IllegalArgumentException")
+    void constructor_asyncFanOut_shouldThrow() {
+        // Given
+        SolverOptions options = SolverOptions.defaults().withFanOutMode(FanOutMode.ASYNC);
+
+        // When / Then
+        assertThatThrownBy(() -> new BatchSolver(apiUrl -> List.of(), nameConverter, options, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BigInteger sumOf(List<BatchResult> results, String jobId) {
+        return results.stream()
+                .filter(result -> result.jobId().equals(jobId))
+                .map(BatchResult::result)
+                .map(result -> result == null ? BigInteger.valueOf(-1) : result.sum())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private BigInteger sumOfNames(String... godNames) {
+        BigInteger sum = BigInteger.ZERO;
+        for (String godName : godNames) {
+            sum = sum.add(nameConverter.convertToDecimal(godName));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,85 @@
+package info.jab.latency;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.jab.latency.api.GodsFetcher;
+import info.jab.latency.service.NameConverter;
+
+/**
+ * Measures the convert-and-sum stage of {@link LatencyProblemSolver}, sequential and on the common ForkJoinPool, and an end-to-end
+ * {@link LatencyProblemSolver#solve()} against an in-process {@link GodsFetcher} stub, so no network is involved.
+ * The payload is split across three stub URLs, as with the Greek, Roman and Nordic APIs.
+ *
+ * <p>Run with {@code ./mvnw -Pjmh -DskipTests verify -Djmh.args="LatencyProblemSolverBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class LatencyProblemSolverBenchmark {
+
+    private static final List<String> API_URLS = List.of("stub://greek", "stub://roman", "stub://nordic");
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int payloadSize;
+
+    @Param({"SHORT", "LONG", "NON_ASCII"})
+    public NameDistribution distribution = NameDistribution.SHORT;
+
+    private LatencyProblemSolver solver = new LatencyProblemSolver(API_URLS, apiUrl -> List.of(), new NameConverter());
+    private LatencyProblemSolver parallelSolver = solver;
+    private List<String> godNames = List.of();
+    private List<String> filteredGodNames = List.of();
+
+    @Setup
+    public void setUp() {
+        godNames = distribution.generate(payloadSize);
+
+        int third = Math.ceilDiv(payloadSize, API_URLS.size());
+        Map<String, List<String>> payloads = Map.of(
+            API_URLS.get(0), godNames.subList(0, Math.min(third, payloadSize)),
+            API_URLS.get(1), godNames.subList(Math.min(third, payloadSize), Math.min(2 * third, payloadSize)),
+            API_URLS.get(2), godNames.subList(Math.min(2 * third, payloadSize), payloadSize));
+        GodsFetcher stub = apiUrl -> payloads.getOrDefault(apiUrl, List.of());
+
+        solver = new LatencyProblemSolver(API_URLS, stub, new NameConverter());
+        parallelSolver = new LatencyProblemSolver(API_URLS, stub, new NameConverter(),
+                SolverOptions.defaults().withParallelConversion(1));
+        filteredGodNames = godNames.stream()
+                .filter(name -> name.toLowerCase(Locale.ROOT).charAt(0) == 'n')
+                .toList();
+    }
+
+    @Benchmark
+    public BigInteger convertAndSum() {
+        return solver.sumDecimalValues(filteredGodNames);
+    }
+
+    @Benchmark
+    public BigInteger convertAndSumParallel() {
+        return parallelSolver.sumDecimalValues(filteredGodNames);
+    }
+
+    @Benchmark
+    public BigInteger solve() {
+        return solver.solve();
+    }
+}
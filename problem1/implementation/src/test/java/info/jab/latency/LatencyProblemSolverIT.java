@@ -1,28 +1,42 @@
 package info.jab.latency;
 
 import java.math.BigInteger;
+import java.nio.file.Path;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import info.jab.latency.api.CircuitBreakerPolicy;
+import info.jab.latency.api.GodsSnapshotStore;
+import info.jab.latency.api.RetryPolicy;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 
 class LatencyProblemSolverIT {
 
     private WireMockServer wireMockServer;
     private LatencyService solver;
+    private List<String> testApiUrls = List.of();
 
     private final String GREEK_GODS_ENDPOINT = "/jabrena/latency-problems/greek";
     private final String ROMAN_GODS_ENDPOINT = "/jabrena/latency-problems/roman";
@@ -36,7 +50,7 @@ class LatencyProblemSolverIT {
         wireMockServer.start();
         WireMock.configureFor("localhost", wireMockServer.port());
 
-        List<String> testApiUrls = List.of(
+        testApiUrls = List.of(
             wireMockServer.baseUrl() + GREEK_GODS_ENDPOINT,
             wireMockServer.baseUrl() + ROMAN_GODS_ENDPOINT,
             wireMockServer.baseUrl() + NORDIC_GODS_ENDPOINT
@@ -64,6 +78,12 @@ class LatencyProblemSolverIT {
                 .willReturn(aResponse().withStatus(500)));
     }
 
+    private void stubAllApisFromResources() {
+        stubApiFromResource(GREEK_GODS_ENDPOINT, "greek_gods.json", 200, 0);
+        stubApiFromResource(ROMAN_GODS_ENDPOINT, "roman_gods.json", 200, 0);
+        stubApiFromResource(NORDIC_GODS_ENDPOINT, "nordic_gods.json", 200, 0);
+    }
+
     @Test
     @DisplayName("Given all APIs are responsive, when solving, then return correct sum of all gods")
     void happyPath_allGods_correctSum() {
@@ -130,4 +150,131 @@ class LatencyProblemSolverIT {
         // Then
         assertThat(sum).isEqualTo(BigInteger.ZERO);
     }
+
+    @Test
+    @DisplayName("Given the ASYNC fan-out mode and responsive APIs, when solving, then return correct sum of all gods")
+    void asyncFanOut_allGods_correctSum() {
+        // Given
+        stubAllApisFromResources();
+        LatencyService asyncSolver = new LatencyProblemSolver(testApiUrls, Duration.ofSeconds(5),
+                SolverOptions.defaults().withFanOutMode(FanOutMode.ASYNC));
+
+        // When
+        BigInteger sum = asyncSolver.solve();
+
+        // Then
+        assertThat(sum).isEqualTo(new BigInteger("78179288397447443426"));
+    }
+
+    @Test
+    @DisplayName("Given the ASYNC fan-out mode and an API slower than the timeout, when solving, then fail")
+    void asyncFanOut_apiTimeout_shouldFail() {
+        // Given
+        stubApiFromResource(GREEK_GODS_ENDPOINT, "greek_gods.json", 200, 0);
+        stubApiFromResource(ROMAN_GODS_ENDPOINT, "roman_gods.json", 200, 2_000);
+        stubApiFromResource(NORDIC_GODS_ENDPOINT, "nordic_gods.json", 200, 0);
+        LatencyService asyncSolver = new LatencyProblemSolver(testApiUrls, Duration.ofMillis(500),
+                SolverOptions.defaults().withFanOutMode(FanOutMode.ASYNC));
+
+        // When / Then
+        assertThatThrownBy(asyncSolver::solve)
+                .isInstanceOf(RuntimeException.class)
+                .hasRootCauseInstanceOf(HttpTimeoutException.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(FanOutMode.class)
+    @DisplayName("Given a latency budget, a slow API and a failing API, when solving, then return the sum of the APIs that answered in time")
+    void latencyBudget_slowAndFailingApis_partialSum(FanOutMode fanOutMode) {
+        // Given
+        stubApiFromResource(GREEK_GODS_ENDPOINT, "greek_gods.json", 200, 0);
+        stubApiFromResource(ROMAN_GODS_ENDPOINT, "roman_gods.json", 200, 3_000);
+        stubFor(get(urlEqualTo(NORDIC_GODS_ENDPOINT))
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        LatencyProblemSolver budgetSolver = new LatencyProblemSolver(testApiUrls, Duration.ofSeconds(5),
+                SolverOptions.defaults().withFanOutMode(fanOutMode).withLatencyBudget(Duration.ofMillis(500)));
+
+        // When
+        long start = System.nanoTime();
+        SolveResult result = budgetSolver.solveWithReport();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(result.sum()).isEqualTo(new BigInteger("78101109179220212216")); // Nike + Nemesis
+        assertThat(result.includedApiUrls()).containsExactly(testApiUrls.get(0));
+        assertThat(result.missingApiUrls()).containsExactly(testApiUrls.get(1), testApiUrls.get(2));
+        assertThat(result.isPartial()).isTrue();
+        assertThat(elapsed).isLessThan(Duration.ofMillis(2_500));
+    }
+
+    @ParameterizedTest
+    @EnumSource(FanOutMode.class)
+    @DisplayName("Given an API answering 500 with a snapshot, when solving, then include its snapshot flagged as stale")
+    void staleIfError_serverError_shouldServeSnapshot(FanOutMode fanOutMode, @TempDir Path directory) throws Exception {
+        // Given
+        stubApiFromResource(GREEK_GODS_ENDPOINT, "greek_gods.json", 200, 0);
+        stubApiFromResource(ROMAN_GODS_ENDPOINT, "empty_gods.json", 200, 0);
+        stubApiUnavailable(NORDIC_GODS_ENDPOINT);
+        GodsSnapshotStore snapshots = new GodsSnapshotStore(directory);
+        snapshots.save(testApiUrls.get(2), List.of("Zeus", "Nike", "Nemesis"));
+        LatencyProblemSolver staleSolver = new LatencyProblemSolver(testApiUrls, Duration.ofSeconds(5),
+                SolverOptions.defaults().withFanOutMode(fanOutMode).withStaleIfError(snapshots));
+
+        // When
+        SolveResult result = staleSolver.solveWithReport();
+
+        // Then
+        BigInteger nikeAndNemesis = new BigInteger("78101109179220212216");
+        assertThat(result.sum()).isEqualTo(nikeAndNemesis.multiply(BigInteger.TWO)); // Greek, and the Nordic snapshot
+        assertThat(result.includedApiUrls()).containsExactlyElementsOf(testApiUrls);
+        assertThat(result.staleApiUrls()).containsExactly(testApiUrls.get(2));
+    }
+
+    @Test
+    @DisplayName("Given an API resetting its first connection, when solving with retries, then return the sum of all gods")
+    void retry_connectionResetOnce_correctSum() {
+        // Given
+        stubApiFromResource(GREEK_GODS_ENDPOINT, "greek_gods.json", 200, 0);
+        stubApiFromResource(ROMAN_GODS_ENDPOINT, "roman_gods.json", 200, 0);
+        stubFor(get(urlEqualTo(NORDIC_GODS_ENDPOINT)).inScenario("Reset once")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER))
+                .willSetStateTo("Recovered"));
+        stubFor(get(urlEqualTo(NORDIC_GODS_ENDPOINT)).inScenario("Reset once")
+                .whenScenarioStateIs("Recovered")
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("wiremock/nordic_gods.json")));
+        LatencyProblemSolver retryingSolver = new LatencyProblemSolver(testApiUrls, Duration.ofSeconds(5),
+                SolverOptions.defaults().withLatencyBudget(Duration.ofSeconds(2))
+                        .withRetry(RetryPolicy.defaults()));
+
+        // When
+        SolveResult result = retryingSolver.solveWithReport();
+
+        // Then
+        assertThat(result.sum()).isEqualTo(new BigInteger("78179288397447443426"));
+        assertThat(result.isPartial()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given an API whose circuit opened, when solving without latency budget, then sum the other APIs without calling it")
+    void circuitBreaker_openCircuit_shouldSumNoNames() {
+        // Given
+        stubApiFromResource(GREEK_GODS_ENDPOINT, "greek_gods.json", 200, 0);
+        stubApiFromResource(ROMAN_GODS_ENDPOINT, "empty_gods.json", 200, 0);
+        stubFor(get(urlEqualTo(NORDIC_GODS_ENDPOINT))
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        LatencyProblemSolver breakerSolver = new LatencyProblemSolver(testApiUrls, Duration.ofSeconds(5),
+                SolverOptions.defaults().withCircuitBreaker(new CircuitBreakerPolicy(1, 1, Duration.ofMinutes(1))));
+        assertThatThrownBy(breakerSolver::solveWithReport).isInstanceOf(RuntimeException.class); // Opens the circuit
+
+        // When
+        SolveResult result = breakerSolver.solveWithReport();
+
+        // Then
+        assertThat(result.sum()).isEqualTo(new BigInteger("78101109179220212216")); // Nike + Nemesis
+        assertThat(result.includedApiUrls()).containsExactlyElementsOf(testApiUrls);
+        WireMock.verify(1, getRequestedFor(urlEqualTo(NORDIC_GODS_ENDPOINT)));
+    }
 }
@@ -0,0 +1,632 @@
+package info.jab.latency;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.jspecify.annotations.Nullable;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import info.jab.latency.api.AsyncGodsFetcher;
+import info.jab.latency.api.GodsFetcher;
+import info.jab.latency.api.GodsSnapshotStore;
+import info.jab.latency.service.DecimalValueConverter;
+import info.jab.latency.service.NameConverter;
+
+class LatencyProblemSolverTest {
+
+    private static final String GREEK_API_URL = "stub://greek";
+    private static final List<String> GREEK_GODS = List.of("Zeus", "Nike", "Nemesis");
+    private static final BigInteger GREEK_SUM = new BigInteger("78101109179220212216"); // Nike + Nemesis
+
+    // Runs the calls of the asynchronous fetchers
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Given hedging and an API that stalls once, when solving, then the hedged request wins and the stalled one is cancelled")
+    void hedging_stalledRequest_hedgedRequestWins() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch stalledRequestCancelled = new CountDownLatch(1);
+        int warmUpCalls = 20;
+        GodsFetcher stallingOnce = apiUrl -> {
+            if (calls.incrementAndGet() == warmUpCalls + 1) {
+                try {
+                    Thread.sleep(Duration.ofSeconds(10));
+                } catch (InterruptedException e) {
+                    stalledRequestCancelled.countDown();
+                    throw e;
+                }
+            }
+            Thread.sleep(Duration.ofMillis(2));
+            return GREEK_GODS;
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL), stallingOnce, new NameConverter(),
+                SolverOptions.defaults().withHedging(new HedgingPolicy(0.9, warmUpCalls)));
+        for (int i = 0; i < warmUpCalls; i++) {
+            solver.solve();
+        }
+
+        // When
+        long start = System.nanoTime();
+        BigInteger sum = solver.solve();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(sum).isEqualTo(GREEK_SUM);
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        assertThat(calls).hasValue(warmUpCalls + 2);
+        assertThat(stalledRequestCancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given hedging but too few recorded latencies, when solving, then no hedged request is issued")
+    void hedging_notEnoughSamples_noHedgedRequest() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        GodsFetcher counting = apiUrl -> {
+            calls.incrementAndGet();
+            return GREEK_GODS;
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL), counting, new NameConverter(),
+                SolverOptions.defaults().withHedging(HedgingPolicy.atPercentile(0.95)));
+
+        // When
+        BigInteger sum = solver.solve();
+
+        // Then
+        assertThat(sum).isEqualTo(GREEK_SUM);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given hedging and a concurrency cap already reached, when a request stalls, then no hedged request exceeds the cap")
+    void hedging_noFreePermit_noHedgedRequest() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        int warmUpCalls = 20;
+        GodsFetcher stallingOnce = apiUrl -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(calls.incrementAndGet() == warmUpCalls + 1 ? Duration.ofMillis(200) : Duration.ofMillis(2));
+                return GREEK_GODS;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL), stallingOnce, new NameConverter(),
+                SolverOptions.defaults()
+                        .withHedging(new HedgingPolicy(0.9, warmUpCalls))
+                        .withConcurrencyLimits(ConcurrencyLimits.of(1)));
+        for (int i = 0; i < warmUpCalls; i++) {
+            solver.solve();
+        }
+
+        // When
+        BigInteger sum = solver.solve();
+
+        // Then
+        assertThat(sum).isEqualTo(GREEK_SUM);
+        assertThat(calls).hasValue(warmUpCalls + 1);
+        assertThat(peakInFlight).hasValue(1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(FanOutMode.class)
+    @DisplayName("Given a concurrency cap and many API URLs, when solving, then no more requests than the cap are in flight and every API is summed")
+    void concurrencyLimits_manyApiUrls_capRespected(FanOutMode fanOutMode) {
+        // Given
+        List<String> apiUrls = IntStream.range(0, 40)
+                .mapToObj(i -> "stub://greek-" + i)
+                .toList();
+        InFlightTrackingFetcher fetcher = new InFlightTrackingFetcher(executor);
+        LatencyProblemSolver solver = new LatencyProblemSolver(apiUrls, fetcher, new NameConverter(),
+                SolverOptions.defaults().withFanOutMode(fanOutMode).withConcurrencyLimits(ConcurrencyLimits.of(4)));
+
+        // When
+        SolveResult result = solver.solveWithReport();
+
+        // Then
+        assertThat(result.sum()).isEqualTo(GREEK_SUM.multiply(BigInteger.valueOf(apiUrls.size())));
+        assertThat(result.includedApiUrls()).containsExactlyElementsOf(apiUrls);
+        assertThat(fetcher.peakInFlight).hasValueLessThanOrEqualTo(4);
+        assertThat(fetcher.calls).hasValue(apiUrls.size());
+    }
+
+    @Test
+    @DisplayName("Given a per-host limit, when solving against two hosts, then each host sees at most that many requests in flight")
+    void concurrencyLimits_perHostLimit_capRespectedPerHost() {
+        // Given
+        List<String> apiUrls = IntStream.range(0, 30)
+                .mapToObj(i -> "stub://host-" + (i % 2) + "/greek-" + i)
+                .toList();
+        InFlightTrackingFetcher fetcher = new InFlightTrackingFetcher(executor);
+        LatencyProblemSolver solver = new LatencyProblemSolver(apiUrls, fetcher, new NameConverter(),
+                SolverOptions.defaults().withConcurrencyLimits(ConcurrencyLimits.of(10).withMaxConcurrentRequestsPerHost(2)));
+
+        // When
+        BigInteger sum = solver.solve();
+
+        // Then
+        assertThat(sum).isEqualTo(GREEK_SUM.multiply(BigInteger.valueOf(apiUrls.size())));
+        assertThat(fetcher.peakInFlightPerHost).containsOnlyKeys("host-0", "host-1");
+        assertThat(fetcher.peakInFlightPerHost.values()).allSatisfy(peak -> assertThat(peak).isBetween(1, 2));
+    }
+
+    @Test
+    @DisplayName("Given a solve listener, when solving then failing, then the listener is told about each solve")
+    void solveListener_solvedThenFailed_shouldBeNotified() {
+        // Given
+        List<SolveResult> solved = new ArrayList<>();
+        List<RuntimeException> failed = new ArrayList<>();
+        SolveListener recording = new SolveListener() {
+            @Override
+            public void onSolved(SolveResult result, Duration elapsed) {
+                solved.add(result);
+            }
+
+            @Override
+            public void onSolveFailed(RuntimeException exception, Duration elapsed) {
+                failed.add(exception);
+            }
+        };
+        AtomicInteger calls = new AtomicInteger();
+        GodsFetcher failingOnSecondCall = apiUrl -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IOException("Connection reset");
+            }
+            return GREEK_GODS;
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL), failingOnSecondCall, new NameConverter(),
+                SolverOptions.defaults(), recording);
+
+        // When
+        SolveResult result = solver.solveWithReport();
+        assertThatThrownBy(solver::solve).isInstanceOf(RuntimeException.class);
+
+        // Then
+        assertThat(solved).containsExactly(result);
+        assertThat(failed).hasSize(1);
+        assertThat(failed.get(0)).hasRootCauseMessage("Connection reset");
+    }
+
+    @Test
+    @DisplayName("Given a letter index, when querying several letters, then answer from the index built by a single fetch")
+    void solveByLetter_severalQueries_shouldFetchOnce() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        GodsFetcher counting = apiUrl -> {
+            calls.incrementAndGet();
+            return List.of("Zeus", "Nike", "nemesis", "Hera", "", "Zagreus");
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL, "stub://greek-mirror"), counting, new NameConverter());
+        NameConverter converter = new NameConverter();
+        BigInteger zSum = converter.convertToDecimal("Zeus").add(converter.convertToDecimal("Zagreus"));
+        BigInteger nSum = converter.convertToDecimal("Nike").add(converter.convertToDecimal("nemesis"));
+
+        // When
+        BigInteger n = solver.solve('n');
+        BigInteger upperZ = solver.solve('Z');
+        BigInteger nAndZ = solver.solve(Set.of('n', 'N', 'z'));
+        BigInteger x = solver.solve('x');
+
+        // Then
+        assertThat(calls).hasValue(2);
+        assertThat(n).isEqualTo(nSum.multiply(BigInteger.TWO));
+        assertThat(upperZ).isEqualTo(zSum.multiply(BigInteger.TWO));
+        assertThat(nAndZ).isEqualTo(n.add(upperZ));
+        assertThat(x).isZero();
+        assertThat(solver.letterIndex().generation()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a letter index, when refreshing it, then fetch again and answer from the new generation")
+    void refreshIndex_changedApi_shouldServeNewGeneration() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        GodsFetcher changing = apiUrl -> calls.incrementAndGet() == 1 ? GREEK_GODS : List.of("Nyx");
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL), changing, new NameConverter());
+        BigInteger before = solver.solve('n');
+
+        // When
+        LetterIndex refreshed = solver.refreshIndex();
+
+        // Then
+        assertThat(before).isEqualTo(GREEK_SUM);
+        assertThat(refreshed.generation()).isEqualTo(2);
+        assertThat(solver.solve('n')).isEqualTo(new NameConverter().convertToDecimal("Nyx"));
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Given a refresh waiting for a slow API, when querying meanwhile, then answer from the current index without waiting")
+    void refreshIndex_slowApi_shouldKeepAnsweringQueries() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch apiAnswers = new CountDownLatch(1);
+        GodsFetcher slowOnRefresh = apiUrl -> {
+            if (calls.incrementAndGet() == 1) {
+                return GREEK_GODS;
+            }
+            refreshStarted.countDown();
+            apiAnswers.await();
+            return List.of("Nyx");
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL), slowOnRefresh, new NameConverter());
+        BigInteger before = solver.solve('n');
+        CompletableFuture<LetterIndex> refresh = CompletableFuture.supplyAsync(solver::refreshIndex);
+        assertThat(refreshStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        BigInteger during = CompletableFuture.supplyAsync(() -> solver.solve('n')).get(1, TimeUnit.SECONDS);
+        apiAnswers.countDown();
+
+        // Then
+        assertThat(during).isEqualTo(before).isEqualTo(GREEK_SUM);
+        assertThat(refresh.get(5, TimeUnit.SECONDS).generation()).isEqualTo(2);
+        assertThat(solver.solve('n')).isEqualTo(new NameConverter().convertToDecimal("Nyx"));
+    }
+
+    @Test
+    @DisplayName("Given a fast and a slow API, when solving incrementally, then publish the fast API's sum first and the full sum last")
+    void solveIncrementally_fastAndSlowApis_shouldRefineTheSum() throws Exception {
+        // Given
+        GodsFetcher fastThenSlow = apiUrl -> {
+            Thread.sleep(apiUrl.endsWith("slow") ? Duration.ofMillis(300) : Duration.ofMillis(5));
+            return GREEK_GODS;
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of("stub://slow", "stub://fast"), fastThenSlow, new NameConverter());
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+
+        // When
+        solver.solveIncrementally().subscribe(subscriber);
+        List<RunningSum> runningSums = subscriber.completion.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(runningSums).containsExactly(
+                new RunningSum(GREEK_SUM, List.of("stub://fast"), 2),
+                new RunningSum(GREEK_SUM.multiply(BigInteger.TWO), List.of("stub://fast", "stub://slow"), 2));
+        assertThat(runningSums.get(1).isComplete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given a failing API, when solving incrementally, then publish the sums so far and fail the stream")
+    void solveIncrementally_failingApi_shouldFailTheStream() {
+        // Given
+        GodsFetcher failingSlowly = apiUrl -> {
+            if (apiUrl.endsWith("down")) {
+                Thread.sleep(Duration.ofMillis(100));
+                throw new IOException("Connection reset");
+            }
+            return GREEK_GODS;
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL, "stub://down"), failingSlowly, new NameConverter());
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+
+        // When
+        solver.solveIncrementally().subscribe(subscriber);
+
+        // Then
+        assertThatThrownBy(() -> subscriber.completion.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("Connection reset");
+        assertThat(subscriber.received).containsExactly(new RunningSum(GREEK_SUM, List.of(GREEK_API_URL), 2));
+    }
+
+    @Test
+    @DisplayName("Given a subscriber cancelling after the first running sum, when solving incrementally, then the listener is told the solve was cancelled, not failed")
+    void solveIncrementally_cancelledSubscription_shouldReportCancellation() throws Exception {
+        // Given
+        CountDownLatch cancelled = new CountDownLatch(1);
+        List<RuntimeException> failed = new CopyOnWriteArrayList<>();
+        SolveListener recording = new SolveListener() {
+            @Override
+            public void onSolveFailed(RuntimeException exception, Duration elapsed) {
+                failed.add(exception);
+            }
+
+            @Override
+            public void onSolveCancelled(Duration elapsed) {
+                cancelled.countDown();
+            }
+        };
+        GodsFetcher fastThenSlow = apiUrl -> {
+            Thread.sleep(apiUrl.endsWith("slow") ? Duration.ofMillis(300) : Duration.ofMillis(5));
+            return GREEK_GODS;
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of("stub://slow", "stub://fast"), fastThenSlow, new NameConverter(),
+                SolverOptions.defaults(), recording);
+        Flow.Subscriber<RunningSum> cancellingAfterFirst = new Flow.Subscriber<>() {
+            private Flow.@Nullable Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(RunningSum runningSum) {
+                Objects.requireNonNull(subscription).cancel();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {}
+
+            @Override
+            public void onComplete() {}
+        };
+
+        // When
+        solver.solveIncrementally().subscribe(cancellingAfterFirst);
+
+        // Then
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(failed).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given name deduplication and APIs returning the same names, when solving, then convert each name once and return the same sum")
+    void solve_nameDeduplication_shouldConvertEachNameOnce() {
+        // Given
+        List<String> apiUrls = List.of(GREEK_API_URL, "stub://greek-mirror", "stub://greek-backup");
+        AtomicInteger conversions = new AtomicInteger();
+        NameConverter nameConverter = new NameConverter();
+        DecimalValueConverter counting = new DecimalValueConverter() {
+            @Override
+            public BigInteger convertToDecimal(String name) {
+                return nameConverter.convertToDecimal(name);
+            }
+
+            @Override
+            public long convertToLong(String name) {
+                conversions.incrementAndGet(); // Called once per summed name, before convertToDecimal for large values
+                return nameConverter.convertToLong(name);
+            }
+        };
+        GodsFetcher mirrors = apiUrl -> GREEK_GODS;
+        LatencyProblemSolver solver = new LatencyProblemSolver(apiUrls, mirrors, counting,
+                SolverOptions.defaults().withNameDeduplication(true));
+
+        // When
+        BigInteger sum = solver.solve();
+
+        // Then
+        assertThat(sum).isEqualTo(GREEK_SUM.multiply(BigInteger.valueOf(3)));
+        assertThat(conversions).hasValue(2);
+        assertThat(solver.deduplicationStats()).isEqualTo(new DeduplicationStats(6, 2));
+        assertThat(solver.deduplicationStats().hitRatio()).isCloseTo(4.0 / 6, within(1e-9));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Given a parallel conversion threshold below the name count, when solving, then return the sequential sum")
+    void solve_parallelConversion_shouldReturnSequentialSum(boolean deduplicateNames) {
+        // Given
+        List<String> apiUrls = List.of(GREEK_API_URL, "stub://greek-mirror", "stub://greek-backup");
+        GodsFetcher mirrors = apiUrl -> GREEK_GODS;
+        LatencyProblemSolver solver = new LatencyProblemSolver(apiUrls, mirrors, new NameConverter(),
+                SolverOptions.defaults().withNameDeduplication(deduplicateNames).withParallelConversion(1));
+
+        // When
+        BigInteger sum = solver.solve();
+
+        // Then
+        assertThat(sum).isEqualTo(GREEK_SUM.multiply(BigInteger.valueOf(3)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(FanOutMode.class)
+    @DisplayName("Given a failing API with a snapshot, when solving, then include its snapshot flagged as stale")
+    void staleIfError_failingApi_shouldServeSnapshot(FanOutMode fanOutMode, @TempDir Path directory) throws Exception {
+        // Given
+        GodsSnapshotStore snapshots = new GodsSnapshotStore(directory);
+        snapshots.save("stub://down", GREEK_GODS);
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL, "stub://down"), new DownApiFetcher(), new NameConverter(),
+                SolverOptions.defaults().withFanOutMode(fanOutMode).withStaleIfError(snapshots));
+
+        // When
+        SolveResult result = solver.solveWithReport();
+
+        // Then
+        assertThat(result.sum()).isEqualTo(GREEK_SUM.multiply(BigInteger.TWO));
+        assertThat(result.includedApiUrls()).containsExactly(GREEK_API_URL, "stub://down");
+        assertThat(result.staleApiUrls()).containsExactly("stub://down");
+        assertThat(result.isStale()).isTrue();
+        assertThat(result.isPartial()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given an API missing the latency budget with a snapshot, when solving, then include its snapshot instead of leaving it out")
+    void staleIfError_latencyBudgetMissed_shouldServeSnapshot(@TempDir Path directory) throws Exception {
+        // Given
+        GodsSnapshotStore snapshots = new GodsSnapshotStore(directory);
+        snapshots.save("stub://slow", List.of("Nyx", "Zeus"));
+        GodsFetcher slowApi = apiUrl -> {
+            if (apiUrl.endsWith("slow")) {
+                Thread.sleep(Duration.ofSeconds(5));
+            }
+            return GREEK_GODS;
+        };
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL, "stub://slow"), slowApi, new NameConverter(),
+                SolverOptions.defaults().withLatencyBudget(Duration.ofMillis(100)).withStaleIfError(snapshots));
+
+        // When
+        SolveResult result = solver.solveWithReport();
+
+        // Then
+        assertThat(result.sum()).isEqualTo(GREEK_SUM.add(new NameConverter().convertToDecimal("Nyx")));
+        assertThat(result.staleApiUrls()).containsExactly("stub://slow");
+        assertThat(result.missingApiUrls()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a recording with the latency problem settings, when solving, then record the solve and convert-and-sum events")
+    void solve_flightRecording_shouldRecordSolverEvents(@TempDir Path directory) throws Exception {
+        // Given
+        Configuration settings;
+        try (Reader jfc = new InputStreamReader(Objects.requireNonNull(getClass().getResourceAsStream("/jfr/latency-problem.jfc")),
+                StandardCharsets.UTF_8)) {
+            settings = Configuration.create(jfc);
+        }
+        GodsFetcher greekApi = apiUrl -> GREEK_GODS;
+        LatencyProblemSolver solver = new LatencyProblemSolver(List.of(GREEK_API_URL, "stub://greek-mirror"), greekApi, new NameConverter());
+        Path dump = directory.resolve("solve.jfr");
+
+        // When
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            BigInteger unused = solver.solve();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("info.jab.latency.Solve"))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getInt("apis")).isEqualTo(2);
+                    assertThat(event.getInt("includedApis")).isEqualTo(2);
+                    assertThat(event.getBoolean("failed")).isFalse();
+                });
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("info.jab.latency.ConvertAndSum"))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getLong("godNames")).isEqualTo(4));
+    }
+
+    // Requests every running sum and completes with all of them
+    private static final class CollectingSubscriber implements Flow.Subscriber<RunningSum> {
+
+        private final List<RunningSum> received = new ArrayList<>();
+        private final CompletableFuture<List<RunningSum>> completion = new CompletableFuture<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(RunningSum runningSum) {
+            received.add(runningSum);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completion.complete(List.copyOf(received));
+        }
+    }
+
+    // Answers after a short delay, tracking how many calls overlap overall and per host
+    private static final class InFlightTrackingFetcher implements GodsFetcher, AsyncGodsFetcher {
+
+        private final ExecutorService executor;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private final Map<String, AtomicInteger> inFlightPerHost = new ConcurrentHashMap<>();
+        private final Map<String, Integer> peakInFlightPerHost = new ConcurrentHashMap<>();
+
+        InFlightTrackingFetcher(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public List<String> fetchGods(String apiUrl) throws InterruptedException {
+            calls.incrementAndGet();
+            String host = URI.create(apiUrl).getAuthority();
+            AtomicInteger hostInFlight = inFlightPerHost.computeIfAbsent(host, key -> new AtomicInteger());
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            peakInFlightPerHost.merge(host, hostInFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(Duration.ofMillis(5));
+                return GREEK_GODS;
+            } finally {
+                hostInFlight.decrementAndGet();
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public CompletableFuture<List<String>> fetchGodsAsync(String apiUrl, Predicate<String> filter) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return fetchGods(apiUrl, filter);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+        }
+    }
+
+    // Fails every call to the URLs ending with "down", synchronously or not
+    private static final class DownApiFetcher implements GodsFetcher, AsyncGodsFetcher {
+
+        @Override
+        public List<String> fetchGods(String apiUrl) throws IOException {
+            if (apiUrl.endsWith("down")) {
+                throw new IOException("Connection reset");
+            }
+            return GREEK_GODS;
+        }
+
+        @Override
+        public CompletableFuture<List<String>> fetchGodsAsync(String apiUrl, Predicate<String> filter) {
+            try {
+                return CompletableFuture.completedFuture(fetchGods(apiUrl, filter));
+            } catch (IOException | InterruptedException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
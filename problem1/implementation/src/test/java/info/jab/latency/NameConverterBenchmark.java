@@ -0,0 +1,58 @@
+package info.jab.latency;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import info.jab.latency.service.DecimalValueConverter;
+import info.jab.latency.service.NameConverter;
+
+/**
+ * Throughput of a single {@link NameConverter#convertToDecimal(String)} call per name distribution.
+ *
+ * <p>Run with {@code ./mvnw -Pjmh -DskipTests verify -Djmh.args="NameConverterBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class NameConverterBenchmark {
+
+    private static final int NAMES = 1024;
+
+    @Param({"SHORT", "LONG", "NON_ASCII"})
+    public NameDistribution distribution = NameDistribution.SHORT;
+
+    private final DecimalValueConverter nameConverter = new NameConverter();
+    private List<String> names = List.of();
+
+    @Setup
+    public void setUp() {
+        names = distribution.generate(NAMES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NAMES)
+    public void convertToDecimal(Blackhole blackhole) {
+        for (String name : names) {
+            BigInteger value = nameConverter.convertToDecimal(name);
+            blackhole.consume(value);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package info.jab.latency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic god name distributions used by the JMH benchmarks and the load tests.
+ * Names are generated from a fixed seed so that every fork measures the same payload,
+ * and roughly one name in four starts with 'n' so that the filter stage keeps a realistic share.
+ */
+public enum NameDistribution {
+
+    /** Up to 6 ASCII characters, the values fit in a long. */
+    SHORT(3, 6, "abcdefghijklmnopqrstuvwxyz"),
+    /** 20 to 40 ASCII characters, the values always need a BigInteger. */
+    LONG(20, 40, "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ"),
+    /** Mixed Greek, accented Latin and supplementary characters (surrogate pairs). */
+    NON_ASCII(4, 12, "αβγδεζηθικλμνξοπρστυφχψωáéíóúñçøå🌟");
+
+    private static final long SEED = 42L;
+
+    private final int minLength;
+    private final int maxLength;
+    private final String alphabet;
+
+    NameDistribution(int minLength, int maxLength, String alphabet) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.alphabet = alphabet;
+    }
+
+    public List<String> generate(int size) {
+        Random random = new Random(SEED);
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(generateName(random));
+        }
+        return names;
+    }
+
+    private String generateName(Random random) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder name = new StringBuilder(length + 1);
+        if (random.nextInt(4) == 0) {
+            name.append('n');
+        }
+        while (name.length() < length) {
+            int codePoint = alphabet.codePointAt(alphabet.offsetByCodePoints(0, random.nextInt(alphabet.codePointCount(0, alphabet.length()))));
+            name.appendCodePoint(codePoint);
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package info.jab.latency;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightLatencyServiceTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    @DisplayName("Given concurrent callers, when solving, then compute once and share the result, and compute again afterwards")
+    void solve_concurrentCallers_shouldComputeOnce() throws Exception {
+        // Given
+        AtomicInteger solves = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        LatencyService slowService = () -> {
+            int solve = solves.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            return BigInteger.valueOf(solve);
+        };
+        SingleFlightLatencyService service = new SingleFlightLatencyService(slowService);
+
+        // When
+        List<Future<BigInteger>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(service::solve));
+            }
+            while (service.coalescedCalls() < CALLERS - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+        }
+
+        // Then
+        for (Future<BigInteger> result : results) {
+            assertThat(result.get()).isEqualTo(BigInteger.ONE);
+        }
+        assertThat(service.solve()).isEqualTo(BigInteger.TWO);
+    }
+}
@@ -0,0 +1,30 @@
+package info.jab.latency.api;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveTimeoutPolicyTest {
+
+    @Test
+    @DisplayName("Given an observed latency, when computing the timeout, then multiply it and clamp it between the floor and the ceiling")
+    void timeoutFor_observedLatency_shouldMultiplyAndClamp() {
+        // Given
+        AdaptiveTimeoutPolicy policy = AdaptiveTimeoutPolicy.p99TimesThree(Duration.ofMillis(50), Duration.ofSeconds(2));
+
+        // When / Then
+        assertThat(policy.timeoutFor(Duration.ofMillis(100))).isEqualTo(Duration.ofMillis(300));
+        assertThat(policy.timeoutFor(Duration.ofMillis(1))).isEqualTo(Duration.ofMillis(50));
+        assertThat(policy.timeoutFor(Duration.ofSeconds(10))).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Given a floor above the ceiling, when creating the policy, then throw")
+    void constructor_floorAboveCeiling_shouldThrow() {
+        assertThatThrownBy(() -> AdaptiveTimeoutPolicy.p99TimesThree(Duration.ofSeconds(2), Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package info.jab.latency.api;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+class ByteScanningGodsFetcherIT {
+
+    private static final String GREEK_API_PATH = "/greek/gods";
+
+    @RegisterExtension
+    static WireMockExtension wireMockServer = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final ByteScanningGodsFetcher fetcher = new ByteScanningGodsFetcher(Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("Given a first-letter filter, when fetching gods synchronously or not, then return what the Jackson client returns")
+    void fetchGods_firstLetterFilter_shouldMatchGodApiClient() throws Exception {
+        // Given
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("wiremock/greek_gods.json")));
+        String greekApiUrl = wireMockServer.baseUrl() + GREEK_API_PATH;
+        FirstLetterFilter godStartingByH = FirstLetterFilter.of('h');
+
+        // When
+        List<String> gods = fetcher.fetchGods(greekApiUrl, godStartingByH);
+        List<String> asyncGods = fetcher.fetchGodsAsync(greekApiUrl, godStartingByH).get();
+
+        // Then
+        List<String> expected = new GodApiClient(Duration.ofSeconds(5)).fetchGods(greekApiUrl, godStartingByH);
+        assertThat(gods).isNotEmpty().isEqualTo(expected);
+        assertThat(asyncGods).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Given an error status or a malformed payload, when fetching gods, then fail with an unusable response")
+    void fetchGods_errorStatusOrMalformedPayload_shouldFailWithUnusableResponse() {
+        // Given
+        wireMockServer.stubFor(get(urlEqualTo("/down")).willReturn(aResponse().withStatus(503)));
+        wireMockServer.stubFor(get(urlEqualTo("/malformed")).willReturn(aResponse().withBody("[\"Zeus\"")));
+
+        // When / Then
+        assertThatThrownBy(() -> fetcher.fetchGods(wireMockServer.baseUrl() + "/down"))
+                .isInstanceOfSatisfying(UnusableResponseException.class, e -> assertThat(e.statusCode()).isEqualTo(503));
+        assertThatThrownBy(() -> fetcher.fetchGodsAsync(wireMockServer.baseUrl() + "/malformed").join())
+                .cause()
+                .isInstanceOfSatisfying(UnusableResponseException.class, e -> assertThat(e.statusCode()).isEqualTo(200));
+    }
+}
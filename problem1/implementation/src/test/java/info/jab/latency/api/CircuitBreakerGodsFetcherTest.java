@@ -0,0 +1,104 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerGodsFetcherTest {
+
+    private static final String GREEK_API_URL = "stub://greek";
+    private static final String ROMAN_API_URL = "stub://roman";
+
+    @Test
+    @DisplayName("Given an API failing half of its calls, when the threshold is reached, then reject the next calls without calling the API")
+    void fetchGods_failureRateReached_shouldOpenCircuit() throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher failingEveryOtherCall = apiUrl -> {
+            if (upstreamCalls.incrementAndGet() % 2 == 0) {
+                throw new HttpTimeoutException("request timed out");
+            }
+            return List.of("Zeus");
+        };
+        CircuitBreakerGodsFetcher fetcher = new CircuitBreakerGodsFetcher(failingEveryOtherCall,
+                new CircuitBreakerPolicy(0.5, 4, Duration.ofMinutes(1)));
+
+        // When
+        fetcher.fetchGods(GREEK_API_URL);
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(HttpTimeoutException.class);
+        fetcher.fetchGods(GREEK_API_URL);
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(HttpTimeoutException.class);
+
+        // Then
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(CircuitOpenException.class);
+        assertThat(upstreamCalls).hasValue(4);
+        assertThat(fetcher.stats(GREEK_API_URL)).isEqualTo(new CircuitBreakerGodsFetcher.Stats(CircuitBreakerGodsFetcher.State.OPEN, 4, 2, 2, 1));
+        assertThat(fetcher.stats(ROMAN_API_URL).state()).isEqualTo(CircuitBreakerGodsFetcher.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Given a full window below the threshold, when more calls fail, then the counts restart with the new window")
+    void fetchGods_windowBelowThreshold_shouldStayClosed() throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher failingEveryThirdCall = apiUrl -> {
+            if (upstreamCalls.incrementAndGet() % 3 == 0) {
+                throw new IOException("Connection reset");
+            }
+            return List.of("Zeus");
+        };
+        CircuitBreakerGodsFetcher fetcher = new CircuitBreakerGodsFetcher(failingEveryThirdCall,
+                new CircuitBreakerPolicy(0.5, 3, Duration.ofMinutes(1)));
+
+        // When
+        for (int i = 0; i < 9; i++) {
+            try {
+                fetcher.fetchGods(GREEK_API_URL);
+            } catch (IOException e) {
+                // One failure per window of three calls
+            }
+        }
+
+        // Then
+        assertThat(fetcher.stats(GREEK_API_URL)).isEqualTo(new CircuitBreakerGodsFetcher.Stats(CircuitBreakerGodsFetcher.State.CLOSED, 9, 3, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Given an open circuit, when the open duration elapsed, then probe once and close on success or open again on failure")
+    void fetchGods_afterOpenDuration_shouldProbe() throws Exception {
+        // Given
+        AtomicBoolean down = new AtomicBoolean(true);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher recovering = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            if (down.get()) {
+                throw new IOException("Connection refused");
+            }
+            return List.of("Zeus");
+        };
+        CircuitBreakerGodsFetcher fetcher = new CircuitBreakerGodsFetcher(recovering,
+                new CircuitBreakerPolicy(1.0, 1, Duration.ofMillis(50)));
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(IOException.class);
+
+        // When
+        Thread.sleep(Duration.ofMillis(60));
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).hasMessage("Connection refused");
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(CircuitOpenException.class);
+        down.set(false);
+        Thread.sleep(Duration.ofMillis(60));
+        List<String> gods = fetcher.fetchGods(GREEK_API_URL);
+
+        // Then
+        assertThat(gods).containsExactly("Zeus");
+        assertThat(upstreamCalls).hasValue(3);
+        assertThat(fetcher.stats(GREEK_API_URL).state()).isEqualTo(CircuitBreakerGodsFetcher.State.CLOSED);
+    }
+}
@@ -0,0 +1,48 @@
+package info.jab.latency.api;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConditionalResponseCacheTest {
+
+    @Test
+    @DisplayName("Given a full cache, when storing another response, then evict the least recently used entries")
+    void put_overCapacity_shouldEvictLeastRecentlyUsed() {
+        // Given
+        Predicate<String> allNames = name -> true;
+        ConditionalResponseCache cache = new ConditionalResponseCache(6);
+        cache.put("greek", allNames, new ConditionalResponseCache.Entry(List.of("Zeus", "Nike"), "\"g1\"", null));
+        cache.put("roman", allNames, new ConditionalResponseCache.Entry(List.of("Neptun"), null, "Wed, 21 Oct 2026 07:28:00 GMT"));
+        cache.get("greek", allNames); // greek is now the most recently used
+
+        // When
+        cache.put("nordic", allNames, new ConditionalResponseCache.Entry(List.of("Njord", "Odin"), "\"n1\"", null));
+
+        // Then
+        assertThat(cache.get("roman", allNames)).isEmpty();
+        assertThat(cache.get("greek", allNames)).isPresent();
+        assertThat(cache.get("nordic", allNames)).isPresent();
+        assertThat(cache.stats()).isEqualTo(new ConditionalResponseCache.Stats(0, 0, 1, 2, 6));
+    }
+
+    @Test
+    @DisplayName("Given a response without validators or another filter, when looking it up, then it is not cached")
+    void put_withoutValidators_shouldNotStore() {
+        // Given
+        Predicate<String> allNames = name -> true;
+        ConditionalResponseCache cache = new ConditionalResponseCache(100);
+
+        // When
+        cache.put("greek", allNames, new ConditionalResponseCache.Entry(List.of("Zeus"), null, null));
+        cache.put("roman", allNames, new ConditionalResponseCache.Entry(List.of("Neptun"), "\"r1\"", null));
+
+        // Then
+        assertThat(cache.get("greek", allNames)).isEmpty();
+        assertThat(cache.get("roman", name -> name.startsWith("N"))).isEmpty();
+        assertThat(cache.get("roman", allNames)).map(ConditionalResponseCache.Entry::godNames).contains(List.of("Neptun"));
+    }
+}
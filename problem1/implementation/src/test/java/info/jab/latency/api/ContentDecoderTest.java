@@ -0,0 +1,174 @@
+package info.jab.latency.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import info.jab.latency.NameDistribution;
+
+class ContentDecoderTest {
+
+    private static final String BODY = NameDistribution.LONG.generate(5_000).toString();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 4_096, Integer.MAX_VALUE})
+    @DisplayName("Given a gzip body split in buffers of any size, when decoding, then return the original body")
+    void decode_gzipSplitBody_shouldReturnOriginalBody(int bufferSize) throws IOException {
+        // Given
+        byte[] gzipped = gzip(BODY);
+
+        // When
+        String decoded = decode("gzip", gzipped, bufferSize);
+
+        // Then
+        assertThat(decoded).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName("Given a gzip body with a file name, a comment, an extra field and a header CRC, when decoding, then skip them")
+    void decode_gzipOptionalHeaderParts_shouldSkipThem() throws IOException {
+        // Given
+        byte[] deflated = deflate(BODY, true);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        gzipped.writeBytes(new byte[] {0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, 3});
+        gzipped.writeBytes(new byte[] {3, 0, 'a', 'b', 'c'});
+        gzipped.writeBytes("gods.json\0".getBytes(StandardCharsets.ISO_8859_1));
+        gzipped.writeBytes("nightly\0".getBytes(StandardCharsets.ISO_8859_1));
+        gzipped.writeBytes(new byte[] {0x12, 0x34});
+        gzipped.writeBytes(deflated);
+        CRC32 crc = new CRC32();
+        byte[] original = BODY.getBytes(StandardCharsets.UTF_8);
+        crc.update(original);
+        gzipped.writeBytes(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt((int) crc.getValue()).putInt(original.length).array());
+
+        // When
+        String decoded = decode("gzip", gzipped.toByteArray(), 3);
+
+        // Then
+        assertThat(decoded).isEqualTo(BODY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Given a zlib-wrapped or raw deflate body, when decoding, then return the original body")
+    void decode_deflateBody_shouldReturnOriginalBody(boolean raw) throws IOException {
+        // Given
+        byte[] deflated = deflate(BODY, raw);
+
+        // When
+        String decoded = decode("Deflate", deflated, 1_000);
+
+        // Then
+        assertThat(decoded).isEqualTo(BODY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Given a zlib-wrapped or raw deflate body arriving a byte at a time, when decoding, then return the original body")
+    void decode_deflateSplitHeader_shouldReturnOriginalBody(boolean raw) throws IOException {
+        // Given
+        byte[] deflated = deflate(BODY, raw);
+
+        // When
+        String decoded = decode("deflate", deflated, 1);
+
+        // Then
+        assertThat(decoded).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName("Given a raw deflate body whose first byte looks like a zlib header, when decoding, then return the original body")
+    void decode_rawDeflateWithZlibLikeFirstByte_shouldReturnOriginalBody() throws IOException {
+        // Given: a stored block, whose padding bits make its first byte 0x08, then an empty final stored block
+        byte[] raw = {0x08, 4, 0, (byte) 0xFB, (byte) 0xFF, 'Z', 'e', 'u', 's', 0x01, 0, 0, (byte) 0xFF, (byte) 0xFF};
+
+        // When
+        String decoded = decode("deflate", raw, 1_000);
+
+        // Then
+        assertThat(decoded).isEqualTo("Zeus");
+    }
+
+    @Test
+    @DisplayName("Given a gzip body with a corrupted CRC, when finishing, then throw IOException")
+    void finish_corruptedCrc_shouldThrow() throws IOException {
+        // Given
+        byte[] gzipped = gzip(BODY);
+        gzipped[gzipped.length - 8] ^= 1;
+
+        // When / Then
+        assertThatThrownBy(() -> decode("gzip", gzipped, 4_096))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("CRC-32");
+    }
+
+    @Test
+    @DisplayName("Given a truncated gzip body, when finishing, then throw IOException")
+    void finish_truncatedBody_shouldThrow() throws IOException {
+        // Given
+        byte[] gzipped = gzip(BODY);
+        byte[] truncated = Arrays.copyOf(gzipped, gzipped.length / 2);
+
+        // When / Then
+        assertThatThrownBy(() -> decode("gzip", truncated, 4_096))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Truncated");
+    }
+
+    @Test
+    @DisplayName("Given an unsupported Content-Encoding, when creating a decoder, then throw IOException")
+    void of_unsupportedEncoding_shouldThrow() {
+        // Given / When / Then
+        assertThatThrownBy(() -> ContentDecoder.of("br"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("br");
+    }
+
+    private static String decode(String contentEncoding, byte[] body, int bufferSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ContentDecoder decoder = ContentDecoder.of(contentEncoding)) {
+            for (int from = 0; from < body.length; from += bufferSize) {
+                int length = Math.min(bufferSize, body.length - from);
+                decoder.decode(ByteBuffer.wrap(body, from, length), decoded -> {
+                    byte[] bytes = new byte[decoded.remaining()];
+                    decoded.get(bytes);
+                    out.writeBytes(bytes);
+                });
+            }
+            decoder.finish();
+            assertThat(decoder.decodedBytes()).isEqualTo(out.size());
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(String body, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflate.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,49 @@
+package info.jab.latency.api;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EndpointLatenciesTest {
+
+    private static final String API_URL = "stub://greek";
+
+    @Test
+    @DisplayName("Given fewer samples than required, when asking for a percentile, then return empty")
+    void percentile_notEnoughSamples_shouldReturnEmpty() {
+        // Given
+        EndpointLatencies latencies = new EndpointLatencies(10);
+        latencies.record(API_URL, Duration.ofMillis(5));
+
+        // When
+        Optional<Duration> p95 = latencies.percentile(API_URL, 0.95, 2);
+
+        // Then
+        assertThat(p95).isEmpty();
+        assertThat(latencies.percentile("stub://unknown", 0.95, 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a full window, when recording more latencies, then the percentile only covers the most recent ones")
+    void percentile_slidingWindow_shouldUseRecentSamples() {
+        // Given
+        EndpointLatencies latencies = new EndpointLatencies(100);
+        for (int i = 1; i <= 100; i++) {
+            latencies.record(API_URL, Duration.ofSeconds(i));
+        }
+        for (int i = 1; i <= 100; i++) {
+            latencies.record(API_URL, Duration.ofMillis(i));
+        }
+
+        // When
+        Optional<Duration> p50 = latencies.percentile(API_URL, 0.5, 100);
+        Optional<Duration> p99 = latencies.percentile(API_URL, 0.99, 100);
+
+        // Then
+        assertThat(p50).contains(Duration.ofMillis(50));
+        assertThat(p99).contains(Duration.ofMillis(99));
+    }
+}
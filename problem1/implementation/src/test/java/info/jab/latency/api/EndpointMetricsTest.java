@@ -0,0 +1,64 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EndpointMetricsTest {
+
+    private static final String GREEK_API_URL = "stub://greek";
+    private static final String ROMAN_API_URL = "stub://roman";
+
+    @Test
+    @DisplayName("Given calls to two APIs, when taking snapshots, then each API has its own latency histogram and counters")
+    void snapshot_callsToTwoApis_shouldKeepMetricsPerApi() {
+        // Given
+        EndpointMetrics metrics = new EndpointMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.onResponse(GREEK_API_URL, 200, 10, Duration.ofMillis(i), Duration.ofNanos(50_000));
+        }
+        metrics.onResponse(ROMAN_API_URL, 503, 0, Duration.ofMillis(3), Duration.ZERO);
+        metrics.onTimeout(ROMAN_API_URL, Duration.ofSeconds(5));
+        metrics.onFailure(ROMAN_API_URL, new IOException("Connection reset"), Duration.ofMillis(1));
+
+        // When
+        EndpointMetrics.Snapshot greek = metrics.snapshot(GREEK_API_URL).orElseThrow();
+        EndpointMetrics.Snapshot roman = metrics.snapshot(ROMAN_API_URL).orElseThrow();
+
+        // Then
+        assertThat(metrics.apiUrls()).containsExactlyInAnyOrder(GREEK_API_URL, ROMAN_API_URL);
+        assertThat(greek.calls()).isEqualTo(100);
+        assertThat(greek.latencyAtPercentile(50)).isBetween(Duration.ofMillis(49), Duration.ofMillis(51));
+        assertThat(greek.latencyAtPercentile(99)).isBetween(Duration.ofMillis(98), Duration.ofMillis(100));
+        assertThat(greek.statusCodes()).containsExactly(entry(200, 100L));
+        assertThat(greek.payloadBytes()).isEqualTo(1_000);
+        assertThat(greek.parseTimeMicros().getMaxValue()).isEqualTo(50);
+        assertThat(roman.calls()).isEqualTo(3);
+        assertThat(roman.statusCodes()).containsExactly(entry(503, 1L));
+        assertThat(roman.timeouts()).isEqualTo(1);
+        assertThat(roman.failures()).isEqualTo(1);
+        assertThat(roman.parseTimeMicros().getTotalCount()).isZero();
+        assertThat(roman.latencyAtPercentile(100)).isBetween(Duration.ofMillis(4_990), Duration.ofMillis(5_010));
+    }
+
+    @Test
+    @DisplayName("Given a snapshot, when recording more calls, then the snapshot does not change")
+    void snapshot_moreCallsRecorded_shouldBeACopy() {
+        // Given
+        EndpointMetrics metrics = new EndpointMetrics();
+        metrics.onResponse(GREEK_API_URL, 200, 10, Duration.ofMillis(1), Duration.ZERO);
+        EndpointMetrics.Snapshot snapshot = metrics.snapshot(GREEK_API_URL).orElseThrow();
+
+        // When
+        metrics.onResponse(GREEK_API_URL, 200, 10, Duration.ofMillis(1), Duration.ZERO);
+
+        // Then
+        assertThat(snapshot.calls()).isEqualTo(1);
+        assertThat(metrics.snapshot(GREEK_API_URL).orElseThrow().calls()).isEqualTo(2);
+        assertThat(metrics.snapshot("stub://unknown")).isEmpty();
+    }
+}
@@ -0,0 +1,405 @@
+package info.jab.latency.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+@DisplayName("God API Client Integration Tests")
+class GodApiClientIT {
+
+    private static final String GREEK_API_PATH = "/greek/gods";
+
+    @RegisterExtension
+    static WireMockExtension wireMockServer = WireMockExtension.newInstance()
+            // Bodies are sent as stubbed, the compressed ones included: the byte counts are exact
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort().gzipDisabled(true))
+            .build();
+
+    private GodApiClient godApiClient;
+    private String greekApiUrl;
+
+    @BeforeEach
+    void setUp() {
+        godApiClient = new GodApiClient(Duration.ofSeconds(5));
+        greekApiUrl = wireMockServer.baseUrl() + GREEK_API_PATH;
+    }
+
+    private void stubGreekApi(String jsonBody) {
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(jsonBody)));
+    }
+
+    @Test
+    @DisplayName("Given a filter, when fetching gods, then return only the matching names in response order")
+    void fetchGods_withFilter_shouldReturnMatchingNamesOnly() throws Exception {
+        // Given
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("wiremock/greek_gods.json")));
+
+        // When
+        List<String> gods = godApiClient.fetchGods(greekApiUrl, name -> name.startsWith("H"));
+
+        // Then
+        assertThat(gods).containsExactly("Hera", "Hephaestus", "Hermes", "Hades", "Hypnos", "Hecate");
+    }
+
+    @Test
+    @DisplayName("Given no filter, when fetching gods, then return every name including non-string scalars as text")
+    void fetchGods_withoutFilter_shouldReturnAllNames() throws Exception {
+        // Given
+        stubGreekApi("[\"Zeus\", null, \"nyx\", 42]");
+
+        // When
+        List<String> gods = godApiClient.fetchGods(greekApiUrl);
+
+        // Then
+        assertThat(gods).containsExactly("Zeus", "nyx", "42");
+    }
+
+    @Test
+    @DisplayName("Given a malformed or non-array payload, when fetching gods, then fail with an unusable response")
+    void fetchGods_malformedPayload_shouldFailWithUnusableResponse() {
+        for (String jsonBody : List.of("[\"Zeus\", \"nyx\"", "{\"gods\": [\"Zeus\"]}", "[[\"Zeus\"]]", "")) {
+            // Given
+            stubGreekApi(jsonBody);
+
+            // When / Then
+            assertThatThrownBy(() -> godApiClient.fetchGods(greekApiUrl, name -> true))
+                    .as(jsonBody)
+                    .isInstanceOfSatisfying(UnusableResponseException.class, e -> assertThat(e.statusCode()).isEqualTo(200));
+        }
+    }
+
+    @Test
+    @DisplayName("Given an empty array, when fetching gods, then return an empty list")
+    void fetchGods_emptyArray_shouldReturnEmptyList() throws Exception {
+        // Given
+        stubGreekApi("[]");
+
+        // When
+        List<String> gods = godApiClient.fetchGods(greekApiUrl);
+
+        // Then
+        assertThat(gods).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a filter, when fetching gods asynchronously, then complete with the matching names only")
+    void fetchGodsAsync_withFilter_shouldCompleteWithMatchingNames() throws Exception {
+        // Given
+        stubGreekApi("[\"Zeus\", \"nyx\", \"Nike\", \"nemesis\"]");
+
+        // When
+        List<String> gods = godApiClient.fetchGodsAsync(greekApiUrl, name -> name.startsWith("n")).get();
+
+        // Then
+        assertThat(gods).containsExactly("nyx", "nemesis");
+    }
+
+    @Test
+    @DisplayName("Given an error status, when fetching gods synchronously or asynchronously, then fail with an unusable response")
+    void fetchGods_errorStatus_shouldFailWithUnusableResponse() {
+        // Given
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH))
+                .willReturn(aResponse().withStatus(503)));
+
+        // When / Then
+        assertThatThrownBy(() -> godApiClient.fetchGods(greekApiUrl))
+                .isInstanceOfSatisfying(UnusableResponseException.class, e -> assertThat(e.statusCode()).isEqualTo(503));
+        assertThatThrownBy(() -> godApiClient.fetchGodsAsync(greekApiUrl).get())
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOfSatisfying(UnusableResponseException.class, e -> assertThat(e.statusCode()).isEqualTo(503));
+    }
+
+    @Test
+    @DisplayName("Given a response cache, when fetching twice an unchanged API, then revalidate with the ETag and reuse the cached names")
+    void fetchGods_withResponseCache_shouldReuseNamesOnNotModified() throws Exception {
+        // Given
+        ConditionalResponseCache responseCache = new ConditionalResponseCache(1_000);
+        GodApiClient cachingClient = new GodApiClient(Duration.ofSeconds(5), GodApiClientOptions.defaults().withResponseCache(responseCache));
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"v1\"")
+                        .withHeader("Last-Modified", "Wed, 21 Oct 2026 07:28:00 GMT")
+                        .withBody("[\"Zeus\", \"nyx\", \"Nike\"]")));
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+        Predicate<String> startingByN = name -> name.toLowerCase(Locale.ROOT).startsWith("n");
+
+        // When
+        List<String> first = cachingClient.fetchGods(greekApiUrl, startingByN);
+        List<String> second = cachingClient.fetchGods(greekApiUrl, startingByN);
+        List<String> secondAsync = cachingClient.fetchGodsAsync(greekApiUrl, startingByN).get();
+
+        // Then
+        assertThat(first).containsExactly("nyx", "Nike");
+        assertThat(second).isEqualTo(first);
+        assertThat(secondAsync).isEqualTo(first);
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GREEK_API_PATH))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .withHeader("If-Modified-Since", equalTo("Wed, 21 Oct 2026 07:28:00 GMT")));
+        assertThat(responseCache.stats()).isEqualTo(new ConditionalResponseCache.Stats(2, 1, 0, 1, 3));
+    }
+
+    @Test
+    @DisplayName("Given an endpoint metrics listener, when calling answering, failing and slow APIs, then record latency, status codes, payload bytes, parse time and timeouts per API")
+    void fetchGods_withMetricsListener_shouldRecordPerEndpointMetrics() throws Exception {
+        // Given
+        EndpointMetrics metrics = new EndpointMetrics();
+        GodApiClient instrumentedClient = new GodApiClient(Duration.ofMillis(500), GodApiClientOptions.defaults().withListener(metrics));
+        String body = "[\"Zeus\", \"nyx\", \"Nike\"]";
+        stubGreekApi(body);
+        wireMockServer.stubFor(get(urlEqualTo("/down")).willReturn(aResponse().withStatus(503)));
+        wireMockServer.stubFor(get(urlEqualTo("/slow")).willReturn(aResponse().withFixedDelay(2_000).withBody("[]")));
+        String downApiUrl = wireMockServer.baseUrl() + "/down";
+        String slowApiUrl = wireMockServer.baseUrl() + "/slow";
+
+        // When
+        instrumentedClient.fetchGods(greekApiUrl);
+        instrumentedClient.fetchGodsAsync(greekApiUrl).get();
+        assertThatThrownBy(() -> instrumentedClient.fetchGods(downApiUrl)).isInstanceOf(UnusableResponseException.class);
+        assertThatThrownBy(() -> instrumentedClient.fetchGods(slowApiUrl)).isInstanceOf(HttpTimeoutException.class);
+
+        // Then
+        assertThat(metrics.apiUrls()).containsExactlyInAnyOrder(greekApiUrl, downApiUrl, slowApiUrl);
+        EndpointMetrics.Snapshot greek = metrics.snapshot(greekApiUrl).orElseThrow();
+        assertThat(greek.calls()).isEqualTo(2);
+        assertThat(greek.statusCodes()).containsExactly(entry(200, 2L));
+        assertThat(greek.payloadBytes()).isEqualTo(2L * body.length());
+        assertThat(greek.parseTimeMicros().getTotalCount()).isEqualTo(2);
+        EndpointMetrics.Snapshot down = metrics.snapshot(downApiUrl).orElseThrow();
+        assertThat(down.statusCodes()).containsExactly(entry(503, 1L));
+        assertThat(down.payloadBytes()).isZero();
+        EndpointMetrics.Snapshot slow = metrics.snapshot(slowApiUrl).orElseThrow();
+        assertThat(slow.timeouts()).isEqualTo(1);
+        assertThat(slow.statusCodes()).isEmpty();
+        assertThat(slow.latencyAtPercentile(100)).isGreaterThanOrEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    @DisplayName("Given adaptive timeouts and a normally fast API, when the API stalls, then time out at the adapted timeout instead of the fixed one")
+    void fetchGods_adaptiveTimeouts_shouldFailFastWhenFastApiStalls() throws Exception {
+        // Given
+        GodApiClient adaptiveClient = new GodApiClient(Duration.ofSeconds(5), GodApiClientOptions.defaults()
+                .withAdaptiveTimeouts(AdaptiveTimeoutPolicy.p99TimesThree(Duration.ofMillis(200), Duration.ofSeconds(5))));
+        stubGreekApi("[\"Zeus\", \"nyx\"]");
+        for (int i = 0; i < 20; i++) {
+            adaptiveClient.fetchGods(greekApiUrl);
+        }
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH))
+                .willReturn(aResponse().withFixedDelay(3_000).withBody("[]")));
+
+        // When
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> adaptiveClient.fetchGods(greekApiUrl)).isInstanceOf(HttpTimeoutException.class);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(adaptiveClient.requestTimeout(greekApiUrl)).isLessThan(Duration.ofSeconds(1));
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Given adaptive timeouts and a normally fast API, when its latency rises above the adapted timeout, then raise the timeout and recover")
+    void fetchGods_adaptiveTimeouts_shouldRecoverWhenLatencyRisesAboveTimeout() throws Exception {
+        // Given
+        GodApiClient adaptiveClient = new GodApiClient(Duration.ofSeconds(5), GodApiClientOptions.defaults()
+                .withAdaptiveTimeouts(AdaptiveTimeoutPolicy.p99TimesThree(Duration.ofMillis(100), Duration.ofSeconds(5))));
+        stubGreekApi("[\"Zeus\", \"nyx\"]");
+        for (int i = 0; i < 20; i++) {
+            adaptiveClient.fetchGods(greekApiUrl);
+        }
+        Duration adaptedTimeout = adaptiveClient.requestTimeout(greekApiUrl);
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH))
+                .willReturn(aResponse().withFixedDelay((int) adaptedTimeout.toMillis() + 500).withBody("[\"Zeus\", \"nyx\"]")));
+
+        // When
+        List<String> gods = List.of();
+        int timeouts = 0;
+        while (gods.isEmpty() && timeouts < 10) {
+            try {
+                gods = adaptiveClient.fetchGods(greekApiUrl);
+            } catch (HttpTimeoutException e) {
+                timeouts++;
+            }
+        }
+
+        // Then
+        assertThat(gods).containsExactly("Zeus", "nyx");
+        assertThat(timeouts).isPositive();
+        assertThat(adaptiveClient.requestTimeout(greekApiUrl)).isGreaterThan(adaptedTimeout.plusMillis(500));
+    }
+
+    @Test
+    @DisplayName("Given a snapshot store, when fetching with a filter, then return the matching names and snapshot the whole payload")
+    void fetchGods_withSnapshotStore_shouldSaveUnfilteredPayload(@TempDir Path directory) throws Exception {
+        // Given
+        GodsSnapshotStore snapshots = new GodsSnapshotStore(directory);
+        GodApiClient client = new GodApiClient(Duration.ofSeconds(5), GodApiClientOptions.defaults().withSnapshotStore(snapshots));
+        stubGreekApi("[\"Zeus\", \"Nike\", \"Nemesis\"]");
+
+        // When
+        List<String> gods = client.fetchGods(greekApiUrl, name -> name.startsWith("N"));
+
+        // Then
+        assertThat(gods).containsExactly("Nike", "Nemesis");
+        snapshots.awaitPendingSaves();
+        assertThat(new GodsSnapshotStore(directory).load(greekApiUrl))
+                .hasValueSatisfying(snapshot -> assertThat(snapshot.godNames()).containsExactly("Zeus", "Nike", "Nemesis"));
+    }
+
+    @Test
+    @DisplayName("Given a recording of the fetch and parse events, when fetching gods, then record the URL, bytes and name counts")
+    void fetchGods_flightRecording_shouldRecordFetchAndParseEvents(@TempDir Path directory) throws Exception {
+        // Given
+        stubGreekApi("[\"Zeus\", \"Nike\", \"Nemesis\"]");
+        Path dump = directory.resolve("fetch.jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable(GodsFetchEvent.NAME);
+            recording.enable(GodNamesParseEvent.NAME);
+            recording.start();
+            List<String> unused = godApiClient.fetchGods(greekApiUrl, name -> name.startsWith("N"));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals(GodsFetchEvent.NAME))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getString("apiUrl")).isEqualTo(greekApiUrl);
+                    assertThat(event.getString("outcome")).isEqualTo("RESPONSE");
+                    assertThat(event.getInt("statusCode")).isEqualTo(200);
+                    assertThat(event.getLong("payloadBytes")).isEqualTo(27);
+                    assertThat(event.getInt("godNames")).isEqualTo(2);
+                });
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals(GodNamesParseEvent.NAME))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getLong("parsedNames")).isEqualTo(3);
+                    assertThat(event.getLong("acceptedNames")).isEqualTo(2);
+                    assertThat(event.getBoolean("malformed")).isFalse();
+                });
+    }
+
+    @Test
+    @DisplayName("Given two clients sharing an HTTP/2-preferring client, when fetching gods, then both fetch over the shared client")
+    void fetchGods_sharedHttpClient_shouldFetchWithBothClients() throws Exception {
+        // Given
+        stubGreekApi("[\"Zeus\", \"Nike\", \"Nemesis\"]");
+        Predicate<String> godStartingByN = name -> name.startsWith("N");
+
+        try (SharedHttpClientFactory httpClients = new SharedHttpClientFactory(HttpClientSettings.defaults())) {
+            GodApiClientOptions options = GodApiClientOptions.defaults().withHttpClients(httpClients);
+            GodApiClient first = new GodApiClient(Duration.ofSeconds(5), options);
+            GodApiClient second = new GodApiClient(Duration.ofSeconds(5), options);
+
+            // When
+            List<String> fromFirst = first.fetchGods(greekApiUrl, godStartingByN);
+            List<String> fromSecond = second.fetchGodsAsync(greekApiUrl, godStartingByN).join();
+
+            // Then
+            assertThat(fromFirst).containsExactly("Nike", "Nemesis");
+            assertThat(fromSecond).containsExactly("Nike", "Nemesis");
+            wireMockServer.verify(2, getRequestedFor(urlEqualTo(GREEK_API_PATH)));
+        }
+    }
+
+    @Test
+    @DisplayName("Given a gzip or deflate compressed body, when fetching gods, then ask for compression and parse the inflated names")
+    void fetchGods_compressedBody_shouldInflateWhileParsing() throws Exception {
+        // Given
+        String body = "[\"Zeus\", \"Nike\", \"Nemesis\", \"Nyx\"]";
+        byte[] gzipped = gzip(body);
+        wireMockServer.stubFor(get(urlEqualTo("/gzip")).willReturn(aResponse()
+                .withHeader("Content-Encoding", "gzip")
+                .withBody(gzipped)));
+        wireMockServer.stubFor(get(urlEqualTo("/deflate")).willReturn(aResponse()
+                .withHeader("Content-Encoding", "deflate")
+                .withBody(deflate(body))));
+        EndpointMetrics metrics = new EndpointMetrics();
+        GodApiClient instrumentedClient = new GodApiClient(Duration.ofSeconds(5), GodApiClientOptions.defaults().withListener(metrics));
+        Predicate<String> godStartingByN = name -> name.startsWith("N");
+        String gzipApiUrl = wireMockServer.baseUrl() + "/gzip";
+
+        // When
+        List<String> fromGzip = instrumentedClient.fetchGods(gzipApiUrl, godStartingByN);
+        List<String> fromDeflate = instrumentedClient.fetchGodsAsync(wireMockServer.baseUrl() + "/deflate", godStartingByN).join();
+
+        // Then
+        assertThat(fromGzip).containsExactly("Nike", "Nemesis", "Nyx");
+        assertThat(fromDeflate).containsExactly("Nike", "Nemesis", "Nyx");
+        assertThat(metrics.snapshot(gzipApiUrl).orElseThrow().payloadBytes()).isEqualTo(gzipped.length);
+        wireMockServer.verify(getRequestedFor(urlEqualTo("/gzip")).withHeader("Accept-Encoding", equalTo("gzip, deflate")));
+    }
+
+    @Test
+    @DisplayName("Given a truncated gzip body, when fetching gods, then fail with an unusable response as for any parsing error")
+    void fetchGods_truncatedGzipBody_shouldFailWithUnusableResponse() throws Exception {
+        // Given
+        byte[] gzipped = gzip("[\"Zeus\", \"Nike\"]");
+        wireMockServer.stubFor(get(urlEqualTo(GREEK_API_PATH)).willReturn(aResponse()
+                .withHeader("Content-Encoding", "gzip")
+                .withBody(Arrays.copyOf(gzipped, gzipped.length - 4))));
+
+        // When / Then
+        assertThatThrownBy(() -> godApiClient.fetchGods(greekApiUrl)).isInstanceOf(UnusableResponseException.class);
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out)) {
+            deflate.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
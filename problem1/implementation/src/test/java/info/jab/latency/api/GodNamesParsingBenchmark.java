@@ -0,0 +1,80 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.jab.latency.NameDistribution;
+
+/**
+ * Parses the same payload with the Jackson path of {@link GodApiClient} and the byte scanning path of
+ * {@link ByteScanningGodsFetcher}, both filtering on the first letter 'n' as the solver does. Only the parsing is
+ * measured, the whole body being already in memory.
+ *
+ * <p>Run with {@code ./mvnw -Pjmh -DskipTests verify -Djmh.args="GodNamesParsingBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GodNamesParsingBenchmark {
+
+    private static final String API_URL = "stub://greek";
+
+    // The whole payload is fed at once, so there is no back pressure to apply
+    private static final Flow.Subscription UNBOUNDED = new Flow.Subscription() {
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+    };
+
+    @Param({"1000", "100000"})
+    public int payloadSize;
+
+    @Param({"SHORT", "LONG", "NON_ASCII"})
+    public NameDistribution distribution = NameDistribution.SHORT;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final FirstLetterFilter godStartingByn = FirstLetterFilter.of('n');
+    private byte[] payload = new byte[0];
+
+    @Setup
+    public void setUp() throws IOException {
+        payload = new ObjectMapper().writeValueAsBytes(distribution.generate(payloadSize));
+    }
+
+    @Benchmark
+    public List<String> jackson() throws IOException {
+        GodNamesBodySubscriber subscriber = new GodNamesBodySubscriber(jsonFactory, API_URL, godStartingByn);
+        subscriber.onSubscribe(UNBOUNDED);
+        subscriber.onNext(List.of(ByteBuffer.wrap(payload)));
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public List<String> byteScanning() throws IOException {
+        return GodNamesScanner.scan(payload, godStartingByn);
+    }
+}
@@ -0,0 +1,104 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.jab.latency.NameDistribution;
+
+class GodNamesScannerTest {
+
+    @ParameterizedTest
+    @EnumSource(NameDistribution.class)
+    @DisplayName("Given a generated payload, when scanning it with a first-letter filter, then return the names Jackson returns")
+    void scan_generatedPayload_shouldMatchJackson(NameDistribution distribution) throws Exception {
+        // Given
+        byte[] payload = new ObjectMapper().writeValueAsBytes(distribution.generate(1_000));
+        FirstLetterFilter godStartingByn = FirstLetterFilter.of('N');
+
+        // When
+        List<String> gods = GodNamesScanner.scan(payload, godStartingByn);
+
+        // Then
+        assertThat(gods).isNotEmpty().isEqualTo(parseWithJackson(payload, godStartingByn));
+    }
+
+    @Test
+    @DisplayName("Given escaped names, when scanning with a first-letter filter, then decode the escapes before deciding")
+    void scan_escapedNames_shouldDecodeEscapes() throws Exception {
+        // Given
+        String json = "[\"Nyx\", \"\\u004Eike\", \"N\\u00e9mesis\", \"nemesis\\\"\\\\/\", \"Zeus\", \"\\ud83c\\udf1fZeus\"]";
+
+        // When
+        List<String> gods = GodNamesScanner.scan(json.getBytes(StandardCharsets.UTF_8), FirstLetterFilter.of('n'));
+
+        // Then
+        assertThat(gods).containsExactly("Nyx", "Nike", "Némesis", "nemesis\"\\/");
+    }
+
+    @Test
+    @DisplayName("Given a non-ASCII first letter whose lower case is ASCII, when scanning, then test the decoded name")
+    void scan_nonAsciiFirstLetter_shouldTestDecodedName() throws Exception {
+        // Given
+        String json = "[\"\u212Aronos\", \"Kratos\", \"Zeus\"]"; // Kelvin sign, lower-cased to 'k'
+
+        // When
+        List<String> gods = GodNamesScanner.scan(json.getBytes(StandardCharsets.UTF_8), FirstLetterFilter.of('k'));
+
+        // Then
+        assertThat(gods).containsExactly("\u212Aronos", "Kratos");
+    }
+
+    @Test
+    @DisplayName("Given nulls and other scalars, when scanning without filter, then skip the nulls and read the scalars as text")
+    void scan_scalars_shouldReadAsText() throws Exception {
+        // Given
+        String json = " [\"Zeus\", null, 42, -1.5e3, true, false] trailing";
+        Predicate<String> anyGod = name -> true;
+
+        // When
+        List<String> gods = GodNamesScanner.scan(json.getBytes(StandardCharsets.UTF_8), anyGod);
+
+        // Then
+        assertThat(gods).containsExactly("Zeus", "42", "-1.5e3", "true", "false");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"[\"Zeus\", \"nyx\"", "{\"gods\": [\"Zeus\"]}", "[[\"Zeus\"]]", "", "[\"Zeus\",]", "[\"Ze\nus\"]"})
+    @DisplayName("Given a malformed payload, when scanning, then fail")
+    void scan_malformedPayload_shouldFail(String json) {
+        // Given
+        byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+
+        // When / Then
+        assertThatThrownBy(() -> GodNamesScanner.scan(payload, FirstLetterFilter.of('n'))).isInstanceOf(IOException.class);
+    }
+
+    private static List<String> parseWithJackson(byte[] payload, Predicate<String> filter) throws IOException {
+        GodNamesBodySubscriber subscriber = new GodNamesBodySubscriber(new JsonFactory(), "stub://greek", filter);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {}
+
+            @Override
+            public void cancel() {}
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap(payload)));
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+}
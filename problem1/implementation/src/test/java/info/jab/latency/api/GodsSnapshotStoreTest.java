@@ -0,0 +1,88 @@
+package info.jab.latency.api;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GodsSnapshotStoreTest {
+
+    private static final String GREEK_API_URL = "https://example.com/greek";
+    private static final List<String> GREEK_GODS = List.of("Zeus", "Nike", "Νέμεσις", "🌟".repeat(100));
+
+    @Test
+    @DisplayName("Given a saved payload, when a new store opens the same directory, then serve the snapshot from disk")
+    void load_afterRestart_shouldServeSavedSnapshot(@TempDir Path directory) throws Exception {
+        // Given
+        new GodsSnapshotStore(directory).save(GREEK_API_URL, GREEK_GODS);
+
+        // When
+        GodsSnapshotStore restarted = new GodsSnapshotStore(directory);
+
+        // Then
+        assertThat(restarted.load(GREEK_API_URL))
+                .hasValueSatisfying(snapshot -> assertThat(snapshot.godNames()).isEqualTo(GREEK_GODS));
+        assertThat(restarted.load("https://example.com/roman")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a newer payload, when saving it, then replace the snapshot")
+    void save_newerPayload_shouldReplaceSnapshot(@TempDir Path directory) throws Exception {
+        // Given
+        GodsSnapshotStore store = new GodsSnapshotStore(directory);
+        store.save(GREEK_API_URL, GREEK_GODS);
+
+        // When
+        store.save(GREEK_API_URL, List.of("Nyx"));
+
+        // Then
+        assertThat(new GodsSnapshotStore(directory).load(GREEK_API_URL))
+                .hasValueSatisfying(snapshot -> assertThat(snapshot.godNames()).containsExactly("Nyx"));
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Given a payload recorded name by name, when committing it, then serve it at once and write it in the background")
+    void commit_recordedPayload_shouldServeItAndWriteItInBackground(@TempDir Path directory) throws Exception {
+        // Given
+        GodsSnapshotStore store = new GodsSnapshotStore(directory);
+        GodsSnapshotStore.Recorder recorder = store.recorder(GREEK_API_URL);
+        GREEK_GODS.forEach(recorder::add);
+
+        // When
+        recorder.commit();
+
+        // Then
+        assertThat(store.load(GREEK_API_URL))
+                .hasValueSatisfying(snapshot -> assertThat(snapshot.godNames()).isEqualTo(GREEK_GODS));
+        store.awaitPendingSaves();
+        assertThat(new GodsSnapshotStore(directory).load(GREEK_API_URL))
+                .hasValueSatisfying(snapshot -> assertThat(snapshot.godNames()).isEqualTo(GREEK_GODS));
+    }
+
+    @Test
+    @DisplayName("Given a truncated snapshot file, when loading it, then return no snapshot")
+    void load_truncatedFile_shouldReturnEmpty(@TempDir Path directory) throws Exception {
+        // Given
+        new GodsSnapshotStore(directory).save(GREEK_API_URL, GREEK_GODS);
+        Path file;
+        try (var files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        // When
+        GodsSnapshotStore restarted = new GodsSnapshotStore(directory);
+
+        // Then
+        assertThat(restarted.load(GREEK_API_URL)).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MemoizingGodsFetcherTest {
+
+    private static final String GREEK_API_URL = "stub://greek";
+
+    @Test
+    @DisplayName("Given fetches of the same URL with different filters, when fetching, then call the API once and filter its payload")
+    void fetchGods_differentFilters_shouldCallApiOnce() throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher api = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            return List.of("Zeus", "Nike", "Hera", "Nemesis");
+        };
+        MemoizingGodsFetcher fetcher = new MemoizingGodsFetcher(api);
+
+        // When
+        List<String> startingByN = fetcher.fetchGods(GREEK_API_URL, name -> name.startsWith("N"));
+        List<String> startingByH = fetcher.fetchGods(GREEK_API_URL, name -> name.startsWith("H"));
+        List<String> all = fetcher.fetchGods(GREEK_API_URL);
+
+        // Then
+        assertThat(startingByN).containsExactly("Nike", "Nemesis");
+        assertThat(startingByH).containsExactly("Hera");
+        assertThat(all).containsExactly("Zeus", "Nike", "Hera", "Nemesis");
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(fetcher.calls()).isEqualTo(1);
+        assertThat(fetcher.hits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a failing API, when fetching twice, then call the API twice as the failure is not kept")
+    void fetchGods_failingApi_shouldNotMemoizeFailure() {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher failingApi = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            throw new IOException("Connection reset");
+        };
+        MemoizingGodsFetcher fetcher = new MemoizingGodsFetcher(failingApi);
+
+        // When / Then
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(IOException.class);
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Given a memoized payload, when clearing, then the next fetch calls the API again")
+    void clear_memoizedPayload_shouldFetchAgain() throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        MemoizingGodsFetcher fetcher = new MemoizingGodsFetcher(apiUrl -> List.of("Nike-" + upstreamCalls.incrementAndGet()));
+        List<String> first = fetcher.fetchGods(GREEK_API_URL);
+
+        // When
+        fetcher.clear();
+        List<String> second = fetcher.fetchGods(GREEK_API_URL);
+
+        // Then
+        assertThat(first).containsExactly("Nike-1");
+        assertThat(second).containsExactly("Nike-2");
+    }
+}
@@ -0,0 +1,179 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RetryingGodsFetcherTest {
+
+    private static final String GREEK_API_URL = "stub://greek";
+    private static final RetryPolicy FAST_RETRIES = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), 0.1);
+
+    @Test
+    @DisplayName("Given an API resetting the first connection, when fetching, then retry and return the names")
+    void fetchGods_transientFailure_shouldRetry() throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher resettingOnce = apiUrl -> {
+            if (upstreamCalls.incrementAndGet() == 1) {
+                throw new IOException("Connection failed", new SocketException("Connection reset"));
+            }
+            return List.of("Zeus");
+        };
+        RetryingGodsFetcher fetcher = new RetryingGodsFetcher(resettingOnce, FAST_RETRIES);
+
+        // When
+        List<String> godNames = fetcher.fetchGods(GREEK_API_URL);
+
+        // Then
+        assertThat(godNames).containsExactly("Zeus");
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(fetcher.retries()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given an API timing out, when fetching, then fail without retrying")
+    void fetchGods_requestTimeout_shouldNotRetry() {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher timingOut = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            throw new HttpTimeoutException("request timed out");
+        };
+        RetryingGodsFetcher fetcher = new RetryingGodsFetcher(timingOut, FAST_RETRIES);
+
+        // When / Then
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(HttpTimeoutException.class);
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(fetcher.retries()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {502, 503, 504})
+    @DisplayName("Given an API momentarily unavailable behind its gateway, when fetching, then retry and return the names")
+    void fetchGods_unavailableStatus_shouldRetry(int statusCode) throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher unavailableOnce = apiUrl -> {
+            if (upstreamCalls.incrementAndGet() == 1) {
+                throw new UnusableResponseException(apiUrl, statusCode);
+            }
+            return List.of("Zeus");
+        };
+        RetryingGodsFetcher fetcher = new RetryingGodsFetcher(unavailableOnce, FAST_RETRIES);
+
+        // When
+        List<String> godNames = fetcher.fetchGods(GREEK_API_URL);
+
+        // Then
+        assertThat(godNames).containsExactly("Zeus");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {400, 404, 500})
+    @DisplayName("Given an API answering another error status, when fetching, then fail without retrying")
+    void fetchGods_otherErrorStatus_shouldNotRetry(int statusCode) {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher failing = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            throw new UnusableResponseException(apiUrl, statusCode);
+        };
+        RetryingGodsFetcher fetcher = new RetryingGodsFetcher(failing, FAST_RETRIES);
+
+        // When / Then
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(UnusableResponseException.class);
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given an API refusing every connection, when fetching, then fail with the last failure after the maximum attempts")
+    void fetchGods_persistentFailure_shouldStopAtMaxAttempts() {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher refusing = apiUrl -> {
+            throw new ConnectException("Connection refused " + upstreamCalls.incrementAndGet());
+        };
+        RetryingGodsFetcher fetcher = new RetryingGodsFetcher(refusing, FAST_RETRIES);
+
+        // When / Then
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).hasMessage("Connection refused 3");
+        assertThat(fetcher.retries()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a solve deadline already reached, when a fetch fails transiently, then fail without retrying")
+    void fetchGods_deadlineReached_shouldNotRetry() {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher refusing = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            throw new ConnectException("Connection refused");
+        };
+        RetryingGodsFetcher fetcher = new RetryingGodsFetcher(refusing, FAST_RETRIES);
+
+        // When / Then
+        assertThatThrownBy(() -> FetchDeadline.within(Instant.now(), () -> {
+            try {
+                return fetcher.fetchGods(GREEK_API_URL);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        })).hasCauseInstanceOf(ConnectException.class);
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(fetcher.deniedRetries()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given an API that is down, when the retry budget is spent, then fail the next fetches without retrying")
+    void fetchGods_budgetSpent_shouldNotRetry() {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GodsFetcher refusing = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            throw new ConnectException("Connection refused");
+        };
+        RetryingGodsFetcher fetcher = new RetryingGodsFetcher(refusing,
+                new RetryPolicy(2, Duration.ofMillis(1), Duration.ofMillis(1), 0));
+
+        // When
+        for (int i = 0; i < 11; i++) {
+            assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(ConnectException.class);
+        }
+
+        // Then
+        assertThat(fetcher.retries()).isEqualTo(10);
+        assertThat(fetcher.deniedRetries()).isEqualTo(1);
+        assertThat(upstreamCalls).hasValue(21);
+    }
+
+    @Test
+    @DisplayName("Given a retry policy, when computing the backoffs, then stay within the capped exponential bounds")
+    void backoff_shouldStayWithinExponentialBounds() {
+        // Given
+        RetryPolicy policy = new RetryPolicy(10, Duration.ofMillis(50), Duration.ofMillis(300), 0.1);
+        Random random = new Random(42);
+
+        // When / Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.backoff(1, random)).isBetween(Duration.ZERO, Duration.ofMillis(50));
+            assertThat(policy.backoff(3, random)).isBetween(Duration.ZERO, Duration.ofMillis(200));
+            assertThat(policy.backoff(30, random)).isBetween(Duration.ZERO, Duration.ofMillis(300));
+        }
+    }
+}
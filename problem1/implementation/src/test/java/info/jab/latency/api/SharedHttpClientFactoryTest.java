@@ -0,0 +1,71 @@
+package info.jab.latency.api;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SharedHttpClientFactoryTest {
+
+    @Test
+    @DisplayName("Given a shared factory, when fetchers ask for a client with different timeouts, then hand out the same client built from the settings")
+    void httpClient_differentTimeouts_shouldReturnSameClient() {
+        // Given
+        HttpClientSettings settings = HttpClientSettings.defaults().withConnectTimeout(Duration.ofSeconds(2));
+        try (SharedHttpClientFactory factory = new SharedHttpClientFactory(settings)) {
+
+            // When
+            HttpClient first = factory.httpClient(Duration.ofSeconds(5));
+            HttpClient second = factory.httpClient(Duration.ofMillis(500));
+
+            // Then
+            assertThat(second).isSameAs(first);
+            assertThat(first.version()).isEqualTo(HttpClient.Version.HTTP_2);
+            assertThat(first.connectTimeout()).contains(Duration.ofSeconds(2));
+            assertThat(first.executor()).isPresent();
+        }
+    }
+
+    @Test
+    @DisplayName("Given the per-fetcher factory, when fetchers ask for a client, then build a new one with their timeout")
+    void httpClient_perFetcher_shouldBuildNewClients() {
+        // Given
+        HttpClientFactory factory = HttpClientFactory.PER_FETCHER;
+
+        // When
+        HttpClient first = factory.httpClient(Duration.ofSeconds(5));
+        HttpClient second = factory.httpClient(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(second).isNotSameAs(first);
+        assertThat(first.connectTimeout()).contains(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Given the process-wide factory, when asked twice, then return the same factory")
+    void shared_calledTwice_shouldReturnSameFactory() {
+        // Given / When
+        HttpClientFactory first = HttpClientFactory.shared();
+        HttpClientFactory second = HttpClientFactory.shared();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.httpClient(Duration.ofSeconds(1))).isSameAs(second.httpClient(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    @DisplayName("Given a connection timeout that is not positive, when creating settings, then throw IllegalArgumentException")
+    void settings_nonPositiveConnectTimeout_shouldThrow() {
+        // Given
+        HttpClientSettings defaults = HttpClientSettings.defaults();
+
+        // When / Then
+        assertThatThrownBy(() -> defaults.withConnectTimeout(Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> defaults.withConnectTimeout(Duration.ofSeconds(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
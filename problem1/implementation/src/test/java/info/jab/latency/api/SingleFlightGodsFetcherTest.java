@@ -0,0 +1,91 @@
+package info.jab.latency.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightGodsFetcherTest {
+
+    private static final String GREEK_API_URL = "stub://greek";
+    private static final int CALLERS = 8;
+
+    @Test
+    @DisplayName("Given concurrent callers, when fetching the same URL and filter, then call the API once and share the result")
+    void fetchGods_concurrentCallers_shouldCallApiOnce() throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        GodsFetcher slowApi = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            release.await();
+            return List.of("Zeus", "Nike");
+        };
+        SingleFlightGodsFetcher fetcher = new SingleFlightGodsFetcher(slowApi);
+        Predicate<String> allNames = name -> true;
+
+        // When
+        List<Future<List<String>>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> fetcher.fetchGods(GREEK_API_URL, allNames)));
+            }
+            while (fetcher.coalescedCalls() < CALLERS - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+        }
+
+        // Then
+        assertThat(upstreamCalls).hasValue(1);
+        for (Future<List<String>> result : results) {
+            assertThat(result.get()).containsExactly("Zeus", "Nike");
+        }
+    }
+
+    @Test
+    @DisplayName("Given a failing API, when callers share the fetch, then every caller gets the failure and the next call fetches again")
+    void fetchGods_failingApi_shouldFailEveryCallerAndNotCache() throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        GodsFetcher failingApi = apiUrl -> {
+            upstreamCalls.incrementAndGet();
+            release.await();
+            throw new IOException("Connection reset");
+        };
+        SingleFlightGodsFetcher fetcher = new SingleFlightGodsFetcher(failingApi);
+
+        // When
+        List<Future<List<String>>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2; i++) {
+                results.add(callers.submit(() -> fetcher.fetchGods(GREEK_API_URL)));
+            }
+            while (fetcher.coalescedCalls() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+        }
+
+        // Then
+        for (Future<List<String>> result : results) {
+            assertThatThrownBy(result::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseMessage("Connection reset");
+        }
+        assertThatThrownBy(() -> fetcher.fetchGods(GREEK_API_URL)).isInstanceOf(IOException.class);
+        assertThat(upstreamCalls).hasValue(2);
+    }
+}
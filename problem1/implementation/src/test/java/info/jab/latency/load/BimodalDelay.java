@@ -0,0 +1,29 @@
+package info.jab.latency.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+
+/**
+ * A delay that is usually fast but sometimes stalls, as a GC pause or a lost packet would make it.
+ */
+final class BimodalDelay implements DelayDistribution {
+
+    private final long fastMillis;
+    private final long stallMillis;
+    private final double stallRate;
+
+    BimodalDelay(long fastMillis, long stallMillis, double stallRate) {
+        if (stallRate < 0 || stallRate > 1) {
+            throw new IllegalArgumentException("stallRate must be in [0, 1]: " + stallRate);
+        }
+        this.fastMillis = fastMillis;
+        this.stallMillis = stallMillis;
+        this.stallRate = stallRate;
+    }
+
+    @Override
+    public long sampleMillis() {
+        return ThreadLocalRandom.current().nextDouble() < stallRate ? stallMillis : fastMillis;
+    }
+}
@@ -0,0 +1,89 @@
+package info.jab.latency.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * The outcome of a {@link LoadTestHarness} run.
+ *
+ * @param targetRatePerSecond The rate at which the solves were started.
+ * @param elapsed The duration of the run, calls in flight included.
+ * @param latencyMicros The latency of every solve, failures included, in microseconds.
+ * @param failures The solves that threw.
+ */
+public record LoadReport(double targetRatePerSecond, Duration elapsed, Histogram latencyMicros, long failures) {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    /**
+     * Returns the number of solves, whatever their outcome.
+     *
+     * @return The number of solves.
+     */
+    public long calls() {
+        return latencyMicros.getTotalCount();
+    }
+
+    /**
+     * Returns the number of completed solves per second over the run.
+     *
+     * @return The throughput.
+     */
+    public double throughputPerSecond() {
+        return calls() / (elapsed.toNanos() / 1e9);
+    }
+
+    /**
+     * Returns the latency below which the given percentage of the solves fall.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency at the percentile, zero if no solve was recorded.
+     */
+    public Duration latencyAtPercentile(double percentile) {
+        return Duration.ofNanos(latencyMicros.getValueAtPercentile(percentile) * 1_000);
+    }
+
+    /**
+     * Returns a one-line summary of the run.
+     *
+     * @return The summary, latencies in milliseconds.
+     */
+    public String format() {
+        return String.format(Locale.ROOT,
+                "calls=%d failures=%d target=%.1f/s throughput=%.1f/s p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms",
+                calls(), failures, targetRatePerSecond, throughputPerSecond(),
+                millisAt(50), millisAt(99), millisAt(99.9), latencyMicros.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    /**
+     * Writes the summary and the full latency distribution, in HdrHistogram's percentile format, to the given directory.
+     *
+     * @param directory The directory, created if missing.
+     * @param name The base name of the report files.
+     * @return The path of the written distribution file.
+     * @throws IOException if the files cannot be written.
+     */
+    public Path writeTo(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(name + "-summary.txt"), format() + System.lineSeparator());
+        ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(distribution, true, StandardCharsets.UTF_8)) {
+            latencyMicros.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+        Path distributionFile = directory.resolve(name + "-latency.hgrm");
+        Files.write(distributionFile, distribution.toByteArray());
+        return distributionFile;
+    }
+
+    private double millisAt(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
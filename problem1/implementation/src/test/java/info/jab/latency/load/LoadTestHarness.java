@@ -0,0 +1,191 @@
+package info.jab.latency.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+
+import info.jab.latency.LatencyService;
+import info.jab.latency.NameDistribution;
+
+/**
+ * Serves stub God APIs with simulated latencies and failures on a local WireMock server, then drives a
+ * {@link LatencyService} against them at a target rate. Everything runs in-process, without network access.
+ *
+ * <p>The load is open-loop: each solve is started at its scheduled time whether or not the previous ones completed,
+ * and its latency is measured from that scheduled time. A solver that falls behind thus shows its queueing delay in
+ * the percentiles instead of silently lowering the rate (coordinated omission).
+ */
+public final class LoadTestHarness implements AutoCloseable {
+
+    private static final int CONTAINER_THREADS = 200;
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int ERROR_PRIORITY = 1;
+    private static final int RESPONSE_PRIORITY = 5;
+
+    private final WireMockServer wireMockServer;
+    private final List<String> apiUrls;
+
+    /**
+     * Starts a WireMock server serving one stub API per element of the list, at /api/0, /api/1, etc.
+     *
+     * @param stubApis The behaviour of each stub API.
+     */
+    public LoadTestHarness(List<StubApi> stubApis) {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig()
+                .dynamicPort()
+                .containerThreads(CONTAINER_THREADS)
+                .asynchronousResponseEnabled(true)
+                .notifier(new ConsoleNotifier(false)));
+        wireMockServer.start();
+        List<String> urls = new ArrayList<>();
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int i = 0; i < stubApis.size(); i++) {
+            String path = "/api/" + i;
+            stub(path, stubApis.get(i), objectMapper);
+            urls.add(wireMockServer.baseUrl() + path);
+        }
+        apiUrls = List.copyOf(urls);
+    }
+
+    /**
+     * Returns the URLs of the stub APIs, in the order they were given.
+     *
+     * @return The API URLs.
+     */
+    public List<String> apiUrls() {
+        return apiUrls;
+    }
+
+    /**
+     * Calls {@link LatencyService#solve()} at the given rate for the given duration, then waits for the calls in flight.
+     *
+     * @param service The service under test, usually built with {@link #apiUrls()}.
+     * @param ratePerSecond The number of solves started per second.
+     * @param duration How long to keep starting solves.
+     * @return The latencies and throughput of the run.
+     * @throws InterruptedException if interrupted while pacing or waiting for the calls in flight.
+     */
+    public LoadReport run(LatencyService service, double ratePerSecond, Duration duration) throws InterruptedException {
+        return run(service, ratePerSecond, duration, Duration.ZERO);
+    }
+
+    /**
+     * Calls {@link LatencyService#solve()} at the given rate during a warm-up, whose solves are not reported, then runs
+     * the measured load as {@link #run(LatencyService, double, Duration)} does. The warm-up lets the stub server, the
+     * connection pools and the JIT settle, so that the first solves do not time out on a cold start.
+     *
+     * @param service The service under test, usually built with {@link #apiUrls()}.
+     * @param ratePerSecond The number of solves started per second.
+     * @param duration How long to keep starting measured solves.
+     * @param warmUp How long to start solves before the measured ones, zero for none.
+     * @return The latencies and throughput of the measured run.
+     * @throws InterruptedException if interrupted while pacing or waiting for the calls in flight.
+     */
+    public LoadReport run(LatencyService service, double ratePerSecond, Duration duration, Duration warmUp)
+            throws InterruptedException {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be positive: " + ratePerSecond);
+        }
+        if (warmUp.isPositive()) {
+            drive(service, ratePerSecond, warmUp);
+        }
+        return drive(service, ratePerSecond, duration);
+    }
+
+    @Override
+    public void close() {
+        wireMockServer.stop();
+    }
+
+    private LoadReport drive(LatencyService service, double ratePerSecond, Duration duration) throws InterruptedException {
+        Histogram latencyMicros = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        LongAdder failures = new LongAdder();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduledNanos = startNanos; scheduledNanos < endNanos; scheduledNanos += intervalNanos) {
+                sleepUntil(scheduledNanos);
+                long intendedStart = scheduledNanos;
+                executor.execute(() -> {
+                    try {
+                        service.solve();
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                    }
+                    latencyMicros.recordValue(Math.max((System.nanoTime() - intendedStart) / 1_000, 0));
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        return new LoadReport(ratePerSecond, elapsed, latencyMicros.copy(), failures.sum());
+    }
+
+    private void stub(String path, StubApi stubApi, ObjectMapper objectMapper) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(NameDistribution.SHORT.generate(stubApi.payloadSize()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the payload of " + path, e);
+        }
+        wireMockServer.stubFor(get(urlEqualTo(path))
+                .atPriority(RESPONSE_PRIORITY)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body)
+                        .withRandomDelay(stubApi.delay())));
+        if (stubApi.errorRate() > 0) {
+            // Takes precedence over the response for the sampled share of the requests
+            wireMockServer.stubFor(get(urlEqualTo(path))
+                    .atPriority(ERROR_PRIORITY)
+                    .andMatching(new RandomRequestMatcher(stubApi.errorRate()))
+                    .willReturn(aResponse()
+                            .withRandomDelay(stubApi.delay())
+                            .withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(remainingNanos);
+        }
+    }
+
+    private static final class RandomRequestMatcher extends RequestMatcherExtension {
+
+        private final double rate;
+
+        RandomRequestMatcher(double rate) {
+            this.rate = rate;
+        }
+
+        @Override
+        public MatchResult match(Request request, Parameters parameters) {
+            return MatchResult.of(ThreadLocalRandom.current().nextDouble() < rate);
+        }
+    }
+}
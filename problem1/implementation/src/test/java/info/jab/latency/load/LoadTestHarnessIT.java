@@ -0,0 +1,54 @@
+package info.jab.latency.load;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.jab.latency.LatencyProblemSolver;
+
+class LoadTestHarnessIT {
+
+    @Test
+    @DisplayName("Given stub APIs with a fixed delay, when running a short warmed-up load test, then report the latencies of every solve")
+    void run_fixedDelay_shouldReportLatencies(@TempDir Path reportDirectory) throws Exception {
+        // Given
+        try (LoadTestHarness harness = new LoadTestHarness(List.of(
+                StubApi.fixed(Duration.ofMillis(20)),
+                StubApi.fixed(Duration.ofMillis(20)).withPayloadSize(1_000)))) {
+            LatencyProblemSolver solver = new LatencyProblemSolver(harness.apiUrls(), Duration.ofSeconds(2));
+
+            // When
+            LoadReport report = harness.run(solver, 20, Duration.ofSeconds(1), Duration.ofSeconds(1));
+            Path distribution = report.writeTo(reportDirectory, "smoke");
+
+            // Then
+            assertThat(report.calls()).isEqualTo(20);
+            // A loaded build machine may still time out a solve now and then
+            assertThat(report.failures()).isLessThanOrEqualTo(report.calls() / 10);
+            assertThat(report.latencyAtPercentile(50)).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+            assertThat(Files.readString(distribution)).contains("Percentile");
+        }
+    }
+
+    @Test
+    @DisplayName("Given a stub API failing every call, when running a short load test, then count every solve as failed")
+    void run_failingApi_shouldCountFailures() throws Exception {
+        // Given
+        try (LoadTestHarness harness = new LoadTestHarness(List.of(StubApi.fixed(Duration.ZERO).withErrorRate(1)))) {
+            LatencyProblemSolver solver = new LatencyProblemSolver(harness.apiUrls(), Duration.ofSeconds(2));
+
+            // When
+            LoadReport report = harness.run(solver, 10, Duration.ofSeconds(1));
+
+            // Then
+            assertThat(report.calls()).isEqualTo(10);
+            assertThat(report.failures()).isEqualTo(10);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package info.jab.latency.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import info.jab.latency.FanOutMode;
+import info.jab.latency.LatencyProblemSolver;
+import info.jab.latency.SolverOptions;
+
+/**
+ * Runs a load test from the command line, see the load profile of the pom. Every argument is optional and given as
+ * key=value:
+ *
+ * <ul>
+ *   <li>apis: the number of stub APIs (3)</li>
+ *   <li>delay: fixed, lognormal or bimodal (lognormal)</li>
+ *   <li>delayMs: the fixed delay, the median of the lognormal one or the fast mode of the bimodal one (50)</li>
+ *   <li>sigma: the sigma of the lognormal delay (0.5)</li>
+ *   <li>stallMs, stallRate: the stalls of the bimodal delay (1000, 0.01)</li>
+ *   <li>errorRate: the share of the API calls failing with a connection reset (0)</li>
+ *   <li>payloadSize: the number of names per response (100)</li>
+ *   <li>rate, duration: the solves per second and the run duration in seconds (20, 30)</li>
+ *   <li>warmUp: the seconds of unreported solves before the run (5)</li>
+ *   <li>timeout: the API timeout of the solver in milliseconds (2000)</li>
+ *   <li>mode: the fan-out mode of the solver (STRUCTURED)</li>
+ *   <li>out: the report directory (target/load-reports)</li>
+ * </ul>
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> params = parse(args);
+        int apis = Integer.parseInt(params.getOrDefault("apis", "3"));
+        StubApi stubApi = stubApi(params)
+                .withErrorRate(Double.parseDouble(params.getOrDefault("errorRate", "0")))
+                .withPayloadSize(Integer.parseInt(params.getOrDefault("payloadSize", "100")));
+        double rate = Double.parseDouble(params.getOrDefault("rate", "20"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(params.getOrDefault("duration", "30")));
+        Duration warmUp = Duration.ofSeconds(Long.parseLong(params.getOrDefault("warmUp", "5")));
+        Duration timeout = Duration.ofMillis(Long.parseLong(params.getOrDefault("timeout", "2000")));
+        FanOutMode mode = FanOutMode.valueOf(params.getOrDefault("mode", "STRUCTURED").toUpperCase(Locale.ROOT));
+        Path out = Path.of(params.getOrDefault("out", "target/load-reports"));
+
+        List<StubApi> stubApis = new ArrayList<>();
+        for (int i = 0; i < apis; i++) {
+            stubApis.add(stubApi);
+        }
+        try (LoadTestHarness harness = new LoadTestHarness(stubApis)) {
+            LatencyProblemSolver solver = new LatencyProblemSolver(harness.apiUrls(), timeout,
+                    SolverOptions.defaults().withFanOutMode(mode));
+            LoadReport report = harness.run(solver, rate, duration, warmUp);
+            String name = String.join("-", params.getOrDefault("delay", "lognormal"), mode.name().toLowerCase(Locale.ROOT),
+                    String.valueOf(System.currentTimeMillis()));
+            Path distribution = report.writeTo(out, name);
+            System.out.println(report.format());
+            System.out.println("Latency distribution written to " + distribution);
+        }
+    }
+
+    private static StubApi stubApi(Map<String, String> params) {
+        Duration delay = Duration.ofMillis(Long.parseLong(params.getOrDefault("delayMs", "50")));
+        return switch (params.getOrDefault("delay", "lognormal").toLowerCase(Locale.ROOT)) {
+            case "fixed" -> StubApi.fixed(delay);
+            case "lognormal" -> StubApi.logNormal(delay, Double.parseDouble(params.getOrDefault("sigma", "0.5")));
+            case "bimodal" -> StubApi.bimodal(delay, Duration.ofMillis(Long.parseLong(params.getOrDefault("stallMs", "1000"))),
+                    Double.parseDouble(params.getOrDefault("stallRate", "0.01")));
+            default -> throw new IllegalArgumentException("Unknown delay distribution: " + params.get("delay"));
+        };
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            params.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,71 @@
+package info.jab.latency.load;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+
+/**
+ * The behaviour of one stub God API of the {@link LoadTestHarness}.
+ *
+ * @param delay The distribution of the response delays.
+ * @param errorRate The share of the calls failing with a connection reset, between 0 and 1.
+ * @param payloadSize The number of God names in each response.
+ */
+public record StubApi(DelayDistribution delay, double errorRate, int payloadSize) {
+
+    private static final int DEFAULT_PAYLOAD_SIZE = 100;
+
+    public StubApi {
+        Objects.requireNonNull(delay, "delay");
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("errorRate must be in [0, 1]: " + errorRate);
+        }
+        if (payloadSize < 0) {
+            throw new IllegalArgumentException("payloadSize must not be negative: " + payloadSize);
+        }
+    }
+
+    /**
+     * Returns a stub answering after a fixed delay, without errors.
+     *
+     * @param delay The delay of every response.
+     * @return The stub.
+     */
+    public static StubApi fixed(Duration delay) {
+        long millis = delay.toMillis();
+        return new StubApi(() -> millis, 0, DEFAULT_PAYLOAD_SIZE);
+    }
+
+    /**
+     * Returns a stub with log-normal delays, the usual shape of network latencies, without errors.
+     *
+     * @param median The median delay.
+     * @param sigma The standard deviation of the underlying normal distribution; the higher, the longer the tail.
+     * @return The stub.
+     */
+    public static StubApi logNormal(Duration median, double sigma) {
+        return new StubApi(new LogNormal(median.toMillis(), sigma), 0, DEFAULT_PAYLOAD_SIZE);
+    }
+
+    /**
+     * Returns a stub usually answering after the fast delay, but stalling now and then, without errors.
+     *
+     * @param fast The usual delay.
+     * @param stall The delay of a stall.
+     * @param stallRate The share of the calls that stall, between 0 and 1.
+     * @return The stub.
+     */
+    public static StubApi bimodal(Duration fast, Duration stall, double stallRate) {
+        return new StubApi(new BimodalDelay(fast.toMillis(), stall.toMillis(), stallRate), 0, DEFAULT_PAYLOAD_SIZE);
+    }
+
+    public StubApi withErrorRate(double errorRate) {
+        return new StubApi(delay, errorRate, payloadSize);
+    }
+
+    public StubApi withPayloadSize(int payloadSize) {
+        return new StubApi(delay, errorRate, payloadSize);
+    }
+}
@@ -0,0 +1,93 @@
+package info.jab.latency.service;
+
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DecimalSumAccumulatorTest {
+
+    @Test
+    @DisplayName("Given no values, when summing, then return zero")
+    void sum_noValues_shouldReturnZero() {
+        // Given
+        DecimalSumAccumulator accumulator = new DecimalSumAccumulator();
+
+        // When
+        BigInteger result = accumulator.sum();
+
+        // Then
+        assertThat(result).isEqualTo(BigInteger.ZERO);
+    }
+
+    @Test
+    @DisplayName("Given long values that overflow the long total, when summing, then return the exact sum")
+    void sum_longOverflow_shouldReturnExactSum() {
+        // Given
+        DecimalSumAccumulator accumulator = new DecimalSumAccumulator();
+        BigInteger expected = BigInteger.ZERO;
+        for (int i = 0; i < 5; i++) {
+            accumulator.add(Long.MAX_VALUE - i);
+            expected = expected.add(BigInteger.valueOf(Long.MAX_VALUE - i));
+        }
+
+        // When
+        BigInteger result = accumulator.sum();
+
+        // Then
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Given small, large and converted values and a second accumulator, when summing, then return the exact sum")
+    void sum_mixedValues_shouldReturnExactSum() {
+        // Given
+        NameConverter nameConverter = new NameConverter();
+        BigInteger large = new BigInteger("110105107101112104111114111115");
+        DecimalSumAccumulator other = new DecimalSumAccumulator();
+        other.add(Long.MAX_VALUE);
+        other.add(large);
+
+        DecimalSumAccumulator accumulator = new DecimalSumAccumulator();
+        accumulator.add(nameConverter, "nyx");
+        accumulator.add(nameConverter, "nikephoros");
+        accumulator.add(BigInteger.TEN);
+        accumulator.add(other);
+
+        BigInteger expected = new BigInteger("110121120")
+                .add(large)
+                .add(BigInteger.TEN)
+                .add(BigInteger.valueOf(Long.MAX_VALUE))
+                .add(large);
+
+        // When
+        BigInteger result = accumulator.sum();
+
+        // Then
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Given names added several times, when summing, then return the values times their counts even when the product overflows a long")
+    void sum_namesAddedSeveralTimes_shouldMultiplyExactly() {
+        // Given
+        NameConverter converter = new NameConverter();
+        DecimalSumAccumulator accumulator = new DecimalSumAccumulator();
+        String shortName = "Nike";
+        String mediumName = "Nemesis";
+        String longName = "Nemesis Nike Nyx";
+        long hugeCount = Long.MAX_VALUE / 1_000;
+
+        // When
+        accumulator.add(converter, shortName, 3);
+        accumulator.add(converter, mediumName, hugeCount);
+        accumulator.add(converter, longName, 2);
+        accumulator.add(converter, shortName, 0);
+
+        // Then
+        assertThat(accumulator.sum()).isEqualTo(converter.convertToDecimal(shortName).multiply(BigInteger.valueOf(3))
+                .add(converter.convertToDecimal(mediumName).multiply(BigInteger.valueOf(hugeCount)))
+                .add(converter.convertToDecimal(longName).multiply(BigInteger.TWO)));
+    }
+}
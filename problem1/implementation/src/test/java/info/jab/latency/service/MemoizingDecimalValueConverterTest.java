@@ -0,0 +1,42 @@
+package info.jab.latency.service;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MemoizingDecimalValueConverterTest {
+
+    @Test
+    @DisplayName("Given repeated names, when converting, then delegate once per name and report the hits")
+    void convert_repeatedNames_shouldDelegateOncePerName() {
+        // Given
+        AtomicInteger conversions = new AtomicInteger();
+        NameConverter nameConverter = new NameConverter();
+        DecimalValueConverter counting = name -> {
+            conversions.incrementAndGet();
+            return nameConverter.convertToDecimal(name);
+        };
+        MemoizingDecimalValueConverter converter = new MemoizingDecimalValueConverter(counting, 100);
+        String longName = "Nemesis Nike Nyx Nemesis";
+
+        // When
+        BigInteger first = converter.convertToDecimal("Nike");
+        BigInteger second = converter.convertToDecimal("Nike");
+        long small = converter.convertToLong("Nike");
+        long large = converter.convertToLong(longName);
+        BigInteger largeDecimal = converter.convertToDecimal(longName);
+
+        // Then
+        assertThat(first).isEqualTo(second).isEqualTo(nameConverter.convertToDecimal("Nike"));
+        assertThat(small).isEqualTo(first.longValueExact());
+        assertThat(large).isEqualTo(DecimalValueConverter.NOT_A_LONG);
+        assertThat(largeDecimal).isEqualTo(nameConverter.convertToDecimal(longName));
+        assertThat(conversions).hasValue(2);
+        assertThat(converter.stats().hitCount()).isEqualTo(3);
+        assertThat(converter.stats().missCount()).isEqualTo(2);
+        assertThat(converter.stats().hitRatio()).isEqualTo(0.6);
+    }
+}
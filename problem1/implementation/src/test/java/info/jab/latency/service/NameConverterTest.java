@@ -1,12 +1,17 @@
 package info.jab.latency.service;
 
 import java.math.BigInteger;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
 
 class NameConverterTest {
 
@@ -47,4 +52,52 @@ class NameConverterTest {
         // Then
         assertThat(result).isEqualTo(expected);
     }
+
+    @ParameterizedTest
+    @DisplayName("Given long and non-ASCII names, when converting to decimal, then match the concatenated char values")
+    @CsvSource({
+            "nikephoros, 110105107101112104111114111115", // 30 digits, beyond a long
+            "Νίκη, 925943954951",                          // Greek letters, 3 digit chars
+            "nñ, 110241",                                  // Latin-1 supplement
+    })
+    void convertToDecimal_longAndNonAsciiNames_shouldReturnCorrectDecimal(String name, String expectedDecimalStr) {
+        // Given
+        BigInteger expected = new BigInteger(expectedDecimalStr);
+
+        // When
+        BigInteger result = nameConverter.convertToDecimal(name);
+
+        // Then
+        assertThat(result).isEqualTo(referenceConversion(name));
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("randomNames")
+    @DisplayName("Given random names of any length and char range, when converting to decimal, then be bit-identical to the String concatenation contract")
+    void convertToDecimal_randomNames_shouldMatchReferenceConversion(String name) {
+        // Given
+        BigInteger expected = referenceConversion(name);
+
+        // When
+        BigInteger result = nameConverter.convertToDecimal(name);
+
+        // Then
+        assertThat(result).isEqualTo(expected);
+    }
+
+    static Stream<String> randomNames() {
+        Random random = new Random(7L);
+        Stream<String> edgeCases = Stream.of("\u0000", "\u0000n", "n\u0000", "\uffff\uffff\uffff\uffff", "🌟nyx", "nyx🌟");
+        Stream<String> generated = IntStream.range(0, 200)
+                .mapToObj(i -> random.ints(1 + random.nextInt(64), 0, i % 2 == 0 ? 128 : Character.MAX_VALUE + 1)
+                        .collect(StringBuilder::new, (builder, c) -> builder.append((char) c), StringBuilder::append)
+                        .toString());
+        return Stream.concat(edgeCases, generated);
+    }
+
+    // The original definition of the conversion: concatenate the char values as a String and parse it
+    private static BigInteger referenceConversion(String name) {
+        return new BigInteger(name.chars().mapToObj(String::valueOf).collect(Collectors.joining()));
+    }
 }
@@ -0,0 +1,85 @@
+package info.jab.latency.service;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import info.jab.latency.NameDistribution;
+
+class ParallelDecimalSumTest {
+
+    private final NameConverter nameConverter = new NameConverter();
+    private final ParallelDecimalSum parallelSum = new ParallelDecimalSum(ForkJoinPool.commonPool(), 16);
+
+    @ParameterizedTest
+    @EnumSource(NameDistribution.class)
+    @DisplayName("Given many names split in chunks, when summing in parallel, then return the sequential sum")
+    void sum_manyNames_shouldReturnSequentialSum(NameDistribution distribution) {
+        // Given
+        List<String> godNames = distribution.generate(10_000);
+
+        // When
+        BigInteger result = parallelSum.sum(nameConverter, godNames);
+
+        // Then
+        assertThat(result).isEqualTo(sequentialSum(godNames));
+    }
+
+    @Test
+    @DisplayName("Given names and their counts, when summing in parallel, then add each name as many times as its count")
+    void sum_counts_shouldAddEachNameCountTimes() {
+        // Given
+        List<String> godNames = NameDistribution.LONG.generate(1_000);
+        long[] counts = new long[godNames.size()];
+        DecimalSumAccumulator expected = new DecimalSumAccumulator();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = i % 7;
+            expected.add(nameConverter, godNames.get(i), counts[i]);
+        }
+
+        // When
+        BigInteger result = parallelSum.sum(nameConverter, godNames, counts);
+
+        // Then
+        assertThat(result).isEqualTo(expected.sum());
+    }
+
+    @Test
+    @DisplayName("Given no names, when summing in parallel, then return zero")
+    void sum_noNames_shouldReturnZero() {
+        // Given
+        List<String> godNames = List.of();
+
+        // When
+        BigInteger result = parallelSum.sum(nameConverter, godNames);
+
+        // Then
+        assertThat(result).isEqualTo(BigInteger.ZERO);
+    }
+
+    @Test
+    @DisplayName("Given fewer counts than names, when summing in parallel, then throw IllegalArgumentException")
+    void sum_countsMismatch_shouldThrow() {
+        // Given
+        List<String> godNames = List.of("nyx", "nike");
+
+        // When / Then
+        assertThatThrownBy(() -> parallelSum.sum(nameConverter, godNames, new long[1]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private BigInteger sequentialSum(List<String> godNames) {
+        DecimalSumAccumulator accumulator = new DecimalSumAccumulator();
+        for (String godName : godNames) {
+            accumulator.add(nameConverter, godName);
+        }
+        return accumulator.sum();
+    }
+}